@@ -0,0 +1,23 @@
+package org.iota.ixi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("measureixi.GossipReceive")
+@Label("Gossip Receive")
+@Description("Processing of a gossip event by the module")
+@Category({"Measure.ixi", "Gossip"})
+@StackTrace(false)
+@Threshold("1 ms")
+class GossipReceiveEvent extends jdk.jfr.Event {
+
+    @Label("Own Transaction")
+    boolean own;
+
+    @Label("Tag")
+    String tag;
+}
@@ -0,0 +1,24 @@
+package org.iota.ixi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("measureixi.IctSync")
+@Label("Ict Sync")
+@Description("Fetching and applying the neighbor stats of Ict")
+@Category({"Measure.ixi", "Ict REST API"})
+@StackTrace(false)
+@Threshold("0 ms")
+class IctSyncEvent extends jdk.jfr.Event {
+
+    @Label("Neighbors")
+    int neighbors;
+
+    @Label("Complete")
+    @Description("Whether all calls of the sync completed in time")
+    boolean complete;
+}
@@ -0,0 +1,143 @@
+package org.iota.ixi.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ * Emits the sections of the module as Java Flight Recorder events. Loaded reflectively by {@link Events}.
+ *
+ * Events are committed only if they are enabled and exceed their threshold, which default to the values in
+ * the annotations and can be overridden by a recording's settings, e.g. {@code measure-ixi.jfc}.
+ *
+ * Whether an event is enabled is refreshed whenever a recording changes its state. While an event is disabled its
+ * {@code begin} method returns {@code null} instead of allocating an event, so the gossip path stays allocation-free
+ * unless a recording asks for it.
+ * */
+public class JfrEventSink implements EventSink {
+
+    private final EventType gossipType = EventType.getEventType(GossipReceiveEvent.class);
+    private final EventType restCallType = EventType.getEventType(RestCallEvent.class);
+    private final EventType syncType = EventType.getEventType(IctSyncEvent.class);
+    private final EventType submitType = EventType.getEventType(SubmitEvent.class);
+
+    private volatile boolean gossipEnabled;
+    private volatile boolean restCallEnabled;
+    private volatile boolean syncEnabled;
+    private volatile boolean submitEnabled;
+
+    public JfrEventSink() {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(final Recording recording) {
+                refreshEnabled();
+            }
+        });
+        // recordings may have been started before the listener was added, e.g. with -XX:StartFlightRecording
+        refreshEnabled();
+    }
+
+    private void refreshEnabled() {
+        gossipEnabled = gossipType.isEnabled();
+        restCallEnabled = restCallType.isEnabled();
+        syncEnabled = syncType.isEnabled();
+        submitEnabled = submitType.isEnabled();
+    }
+
+    @Override
+    public Object beginGossip() {
+        if (!gossipEnabled) {
+            return null;
+        }
+        final GossipReceiveEvent event = new GossipReceiveEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endGossip(final Object token, final boolean own, final String tag) {
+        if (token == null) {
+            return;
+        }
+        final GossipReceiveEvent event = (GossipReceiveEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.own = own;
+            event.tag = tag;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginRestCall() {
+        if (!restCallEnabled) {
+            return null;
+        }
+        final RestCallEvent event = new RestCallEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endRestCall(final Object token, final String route, final int status, final long bytes) {
+        if (token == null) {
+            return;
+        }
+        final RestCallEvent event = (RestCallEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.route = route;
+            event.status = status;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginSync() {
+        if (!syncEnabled) {
+            return null;
+        }
+        final IctSyncEvent event = new IctSyncEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSync(final Object token, final int neighbors, final boolean complete) {
+        if (token == null) {
+            return;
+        }
+        final IctSyncEvent event = (IctSyncEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.neighbors = neighbors;
+            event.complete = complete;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginSubmit() {
+        if (!submitEnabled) {
+            return null;
+        }
+        final SubmitEvent event = new SubmitEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSubmit(final Object token, final String tag) {
+        if (token == null) {
+            return;
+        }
+        final SubmitEvent event = (SubmitEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.tag = tag;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.iota.ixi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("measureixi.RestCall")
+@Label("Ict REST API Call")
+@Description("A call to the Ict REST API including reading the response")
+@Category({"Measure.ixi", "Ict REST API"})
+@StackTrace(false)
+@Threshold("20 ms")
+class RestCallEvent extends jdk.jfr.Event {
+
+    @Label("Route")
+    String route;
+
+    @Label("Status")
+    @Description("HTTP status code, -1 if no response was received")
+    int status;
+
+    @Label("Bytes")
+    @Description("Length of the response body, -1 if unknown")
+    @DataAmount
+    long bytes;
+}
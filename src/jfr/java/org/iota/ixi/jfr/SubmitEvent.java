@@ -0,0 +1,20 @@
+package org.iota.ixi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("measureixi.Submit")
+@Label("Transaction Submit")
+@Description("Submitting a transaction to Ict")
+@Category({"Measure.ixi", "Gossip"})
+@StackTrace(false)
+@Threshold("5 ms")
+class SubmitEvent extends jdk.jfr.Event {
+
+    @Label("Tag")
+    String tag;
+}
@@ -0,0 +1,81 @@
+package org.iota.ixi;
+
+import org.iota.ict.model.transaction.TransactionBuilder;
+import org.iota.ict.network.gossip.GossipEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import view.MeasureIxiContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time {@link CustomGossipListener#onReceive(GossipEvent)} takes for a pass over {@link #EVENTS} distinct ordinary
+ * transactions, split evenly between the threads, with the default configuration. Every iteration starts with a new
+ * listener and context. Divide the score by the events per thread for the time per transaction.
+ *
+ * The listener is package-private, next to the {@link Module} it belongs to. This benchmark lives in the module
+ * package to reach it rather than in {@code org.iota.ixi.benchmark} with the others.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GossipListenerBenchmark {
+
+    // distinct transactions, limited by the memory they take
+    private static final int EVENTS = 16384;
+    private static final int CONTENDING_THREADS = 4;
+
+    private GossipEvent[] events;
+    private CustomGossipListener listener;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(final ThreadParams params) {
+            // every thread takes its own slice of the events
+            next = params.getThreadIndex() * (EVENTS / params.getThreadCount());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void buildEvents() {
+        events = new GossipEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            final TransactionBuilder builder = new TransactionBuilder();
+            builder.asciiMessage("benchmark transaction " + i);
+            events[i] = new GossipEvent(builder.build(), false);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createListener() {
+        listener = new CustomGossipListener(new MeasureIxiContext());
+    }
+
+    @Benchmark
+    @Warmup(batchSize = EVENTS)
+    @Measurement(batchSize = EVENTS)
+    public void onReceive(final Cursor cursor) {
+        listener.onReceive(events[cursor.next++]);
+    }
+
+    @Benchmark
+    @Threads(CONTENDING_THREADS)
+    @Warmup(batchSize = EVENTS / CONTENDING_THREADS)
+    @Measurement(batchSize = EVENTS / CONTENDING_THREADS)
+    public void onReceiveContended(final Cursor cursor) {
+        listener.onReceive(events[cursor.next++]);
+    }
+}
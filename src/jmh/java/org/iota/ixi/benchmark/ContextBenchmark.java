@@ -0,0 +1,62 @@
+package org.iota.ixi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.json.JSONObject;
+import view.MeasureIxiContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syncs a {@link MeasureIxiContext} with a local Ict REST API stub and reads its configuration.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextBenchmark {
+
+    @Param({"3", "100", "500"})
+    public int neighbors;
+
+    @Param({"60"})
+    public int history;
+
+    private IctRestApiStub stub;
+    private MeasureIxiContext context;
+
+    @Setup
+    public void setUp() throws IOException {
+        stub = new IctRestApiStub(neighbors, history);
+        context = new MeasureIxiContext();
+        context.setIctRestPort(stub.getPort());
+        context.syncIct();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.stop();
+    }
+
+    @Benchmark
+    public void syncIctNeighbors() {
+        context.syncIctNeighbors();
+    }
+
+    @Benchmark
+    public JSONObject getConfiguration() {
+        return context.getConfiguration();
+    }
+
+    @Benchmark
+    public JSONObject getStatistics() {
+        return context.getStatistics();
+    }
+}
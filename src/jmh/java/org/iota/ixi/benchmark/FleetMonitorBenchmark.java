@@ -0,0 +1,66 @@
+package org.iota.ixi.benchmark;
+
+import org.iota.ixi.fleet.FleetMonitor;
+import org.iota.ixi.fleet.IctNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls a fleet of local Ict REST API stubs once, all nodes concurrently.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FleetMonitorBenchmark {
+
+    @Param({"10", "100"})
+    public int nodes;
+
+    @Param({"8"})
+    public int neighbors;
+
+    @Param({"60"})
+    public int history;
+
+    private final List<IctRestApiStub> stubs = new ArrayList<>();
+    private FleetMonitor monitor;
+
+    @Setup
+    public void setUp() throws IOException {
+        final List<IctNode> fleet = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            final IctRestApiStub stub = new IctRestApiStub(neighbors, history);
+            stubs.add(stub);
+            fleet.add(new IctNode("ict-" + i, "localhost", stub.getPort(), "change_me_now"));
+        }
+        monitor = new FleetMonitor(2, 10000, 60000);
+        monitor.configure(fleet);
+        monitor.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        monitor.stop();
+        for (IctRestApiStub stub : stubs) {
+            stub.stop();
+        }
+        stubs.clear();
+    }
+
+    @Benchmark
+    public void pollAll() throws InterruptedException {
+        monitor.pollAll().await();
+    }
+}
@@ -0,0 +1,87 @@
+package org.iota.ixi.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * A local stand-in for the Ict REST API which answers /getNeighbors, /getInfo and /getConfig with canned payloads.
+ * */
+public class IctRestApiStub {
+
+    private final HttpServer server;
+
+    public IctRestApiStub(final int neighbors, final int history) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/getNeighbors", new CannedResponse(neighborsPayload(neighbors, history)));
+        server.createContext("/getInfo", new CannedResponse(new JSONObject().put("version", "0.6").toString()));
+        server.createContext("/getConfig", new CannedResponse(new JSONObject().put("round_duration", 60000).toString()));
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * @return a /getNeighbors response as Ict reports it, with {@code history} stats records per neighbor.
+     * */
+    public static String neighborsPayload(final int neighbors, final int history) {
+        final Random random = new Random(42);
+        final long now = System.currentTimeMillis();
+        final JSONArray jsonNeighbors = new JSONArray();
+        for (int n = 0; n < neighbors; n++) {
+            final JSONArray stats = new JSONArray();
+            for (int h = 0; h < history; h++) {
+                final int all = 1000 + random.nextInt(1000);
+                stats.put(new JSONObject()
+                        .put("timestamp", now - (history - h) * 60000L)
+                        .put("all", all)
+                        .put("new", all / 2)
+                        .put("ignored", all / 3)
+                        .put("invalid", random.nextInt(10))
+                        .put("requested", random.nextInt(50)));
+            }
+            jsonNeighbors.put(new JSONObject()
+                    .put("address", "neighbor-" + n + ".example.org:1337")
+                    .put("stats", stats));
+        }
+        return new JSONObject().put("neighbors", jsonNeighbors).toString();
+    }
+
+    private static class CannedResponse implements HttpHandler {
+
+        private final byte[] body;
+
+        private CannedResponse(final String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            try (InputStream request = exchange.getRequestBody()) {
+                while (request.read() >= 0) {
+                    // drain the password form so the connection can be kept alive
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.iota.ixi.benchmark;
+
+import org.iota.ixi.model.Neighbor;
+import org.iota.ixi.model.NeighborHistory;
+import org.iota.ixi.utils.UuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Neighbor stats updates and uuid generation, both run for every neighbor on every sync.
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NeighborBenchmark {
+
+    private Neighbor neighbor;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        neighbor = new Neighbor("neighbor.example.org:1337");
+        timestamp = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public boolean updateStats() {
+        timestamp += 60000;
+        return neighbor.updateStats(timestamp, 60000, 1500, 750, 500, 3, 20);
+    }
+
+    @Benchmark
+    public double neighborRate() {
+        return neighbor.getHistory().meanRate(NeighborHistory.ALL, 10);
+    }
+
+    @Benchmark
+    public String generateUuid() {
+        return UuidGenerator.generate(neighbor.getAddress());
+    }
+
+    @Benchmark
+    public boolean assignUuid() {
+        // the steady state of a sync: the uuid was derived from the same address before
+        return neighbor.assignUuid(neighbor.getAddress());
+    }
+}
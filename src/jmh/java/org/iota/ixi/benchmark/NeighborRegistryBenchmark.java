@@ -0,0 +1,64 @@
+package org.iota.ixi.benchmark;
+
+import org.iota.ixi.model.Neighbor;
+import org.iota.ixi.model.NeighborRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and sync-style updates of the {@link NeighborRegistry} should stay flat as the number of neighbors grows.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NeighborRegistryBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int neighbors;
+
+    private final NeighborRegistry registry = new NeighborRegistry();
+    private String[] addresses;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        addresses = new String[neighbors];
+        final List<Neighbor> list = new ArrayList<>(neighbors);
+        for (int i = 0; i < neighbors; i++) {
+            addresses[i] = "neighbor-" + i + ".example.org:1337";
+            list.add(new Neighbor(addresses[i]));
+        }
+        registry.replaceAll(registry.snapshot(), list);
+    }
+
+    @Benchmark
+    public Neighbor lookup() {
+        next = (next + 1) % neighbors;
+        return registry.get(addresses[next]);
+    }
+
+    /**
+     * What a sync does: look up every neighbor Ict reports and publish the result.
+     * Divided by the number of neighbors, the time should not grow with it.
+     * */
+    @Benchmark
+    public int sync() {
+        final NeighborRegistry.Snapshot read = registry.snapshot();
+        final List<Neighbor> keep = new ArrayList<>(neighbors);
+        for (String address : addresses) {
+            keep.add(read.get(address));
+        }
+        registry.replaceAll(read, keep);
+        return registry.size();
+    }
+}
@@ -0,0 +1,74 @@
+package org.iota.ixi.benchmark;
+
+import org.iota.ixi.utils.IctRestCaller;
+import org.iota.ixi.utils.NeighborStatsParser;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming tail parser with building the full JSON tree, in memory and over HTTP against a local stub.
+ * Run with the gc profiler to see the allocation saved as the stats history grows.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NeighborsParsingBenchmark {
+
+    @Param({"3", "100"})
+    public int neighbors;
+
+    @Param({"2", "60", "1000"})
+    public int history;
+
+    private String payload;
+    private IctRestApiStub stub;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = IctRestApiStub.neighborsPayload(neighbors, history);
+        stub = new IctRestApiStub(neighbors, history);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.stop();
+    }
+
+    @Benchmark
+    public void parseTree(final Blackhole blackhole) {
+        final JSONArray array = new JSONObject(payload).getJSONArray("neighbors");
+        for (int i = 0; i < array.length(); i++) {
+            final JSONArray stats = array.getJSONObject(i).getJSONArray("stats");
+            blackhole.consume(stats.getJSONObject(stats.length() - 1));
+        }
+    }
+
+    @Benchmark
+    public Object parseStreaming() throws IOException {
+        return new NeighborStatsParser(2).parse(new StringReader(payload));
+    }
+
+    @Benchmark
+    public Object fetchTree() {
+        return IctRestCaller.getNeighbors(stub.getPort(), "");
+    }
+
+    @Benchmark
+    public Object fetchStreaming() {
+        return IctRestCaller.getNeighborStats(stub.getPort(), "", 2);
+    }
+}
@@ -0,0 +1,75 @@
+package org.iota.ixi;
+
+import org.iota.ict.eee.Environment;
+import org.iota.ict.model.transaction.Transaction;
+import org.iota.ict.network.gossip.GossipEvent;
+import org.iota.ict.network.gossip.GossipListener;
+import org.iota.ixi.jfr.Events;
+import org.iota.ixi.metrics.DuplicateFilter;
+import org.iota.ixi.metrics.GossipCounters;
+import org.iota.ixi.metrics.GossipSampler;
+import org.iota.ixi.metrics.HeavyHitters;
+import org.iota.ixi.metrics.Meter;
+import org.iota.ixi.metrics.TagFilter;
+import org.iota.ixi.probe.ProbeTracker;
+import org.iota.ixi.utils.Constants;
+import view.MeasureIxiContext;
+
+/**
+ * A custom gossip listener which counts the sampled transactions submitted or received and matches probe transactions.
+ * */
+class CustomGossipListener implements GossipListener {
+
+    private final Meter inbound;
+    private final Meter outbound;
+    private final GossipSampler sampler;
+    private final GossipCounters counters;
+    private final MeasureIxiContext context;
+    private final HeavyHitters addresses;
+    private final HeavyHitters tags;
+    private final TagFilter probeFilter;
+    private final ProbeTracker probes;
+
+    CustomGossipListener(final MeasureIxiContext context) {
+        this.inbound = context.getInboundMeter();
+        this.outbound = context.getOutboundMeter();
+        this.sampler = context.getGossipSampler();
+        this.counters = context.getGossipCounters();
+        this.context = context;
+        this.addresses = context.getAddressHitters();
+        this.tags = context.getTagHitters();
+        this.probeFilter = context.getProbeFilter();
+        this.probes = context.getProbeTracker();
+    }
+
+    @Override
+    public void onReceive(GossipEvent effect) {
+        final Object event = Events.SINK.beginGossip();
+        final Transaction transaction = effect.getTransaction();
+        // meters count every transaction, sampled or not
+        (effect.isOwnTransaction() ? outbound : inbound).mark();
+        final int weight = sampler.weight(transaction.hash);
+        if (weight > 0) {
+            counters.onReceive(effect.isOwnTransaction(), transaction.tag, weight);
+            addresses.add(transaction.address, weight);
+            tags.add(transaction.tag, weight);
+            if (!effect.isOwnTransaction()) {
+                // null unless the re-gossip filter is enabled
+                final DuplicateFilter duplicates = context.getDuplicateFilter();
+                if (duplicates != null) {
+                    duplicates.checkAndPut(transaction.hash, weight);
+                }
+            }
+        }
+        // probes are matched individually, whether sampled or not
+        if (probeFilter.matches(transaction.tag)) {
+            probes.onProbe(transaction);
+        }
+        Events.SINK.endGossip(event, effect.isOwnTransaction(), transaction.tag);
+    }
+
+    @Override
+    public Environment getEnvironment() {
+        return new Environment(Constants.GOSSIP_ENVIRONMENT);
+    }
+}
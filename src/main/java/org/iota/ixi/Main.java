@@ -1,5 +1,6 @@
 package org.iota.ixi;
 
+import org.apache.logging.log4j.LogManager;
 import org.iota.ict.Ict;
 import org.iota.ict.utils.Constants;
 import org.iota.ict.utils.properties.EditableProperties;
@@ -11,7 +12,7 @@ public class Main {
 
     public static void main(String[] args) {
 
-        System.out.println("Running IXI module for Ict version " + Constants.ICT_VERSION);
+        LogManager.getLogger("MeasureIxi/Main").info("Running IXI module for Ict version {}", Constants.ICT_VERSION);
         EditableProperties properties = new EditableProperties();
         properties.guiEnabled(false);
         Ict ict = new Ict(properties.toFinal());
@@ -1,21 +1,20 @@
 package org.iota.ixi;
 
 
-import org.iota.ict.eee.EffectListenerQueue;
-import org.iota.ict.eee.Environment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.iota.ict.ixi.Ixi;
 import org.iota.ict.ixi.IxiModule;
 import org.iota.ict.ixi.context.IxiContext;
 import org.iota.ict.model.transaction.Transaction;
-import org.iota.ict.model.transaction.TransactionBuilder;
-import org.iota.ict.network.gossip.GossipEvent;
-import org.iota.ict.network.gossip.GossipListener;
 
 import org.iota.ixi.configuration.Migrator;
+import org.iota.ixi.jfr.Events;
+import org.iota.ixi.probe.ProbeTracker;
+import org.iota.ixi.utils.Constants;
+import org.iota.ixi.utils.IctRestCaller;
 import view.MeasureIxiContext;
 
-import java.util.logging.Logger;
-
 /**
  * This is an example IXI module. Use it as template to implement your own module. Run Main.main() to test it.
  * Do not move this class into a different package. If you rename it, update your module.json,
@@ -25,12 +24,13 @@ import java.util.logging.Logger;
 public class Module extends IxiModule {
 
     private final MeasureIxiContext context = new MeasureIxiContext();
-    private static final Logger log = Logger.getLogger("MeasureIxi");
+    private static final Logger log = LogManager.getLogger("MeasureIxi/Module");
 
 
     public Module(Ixi ixi) {
         super(ixi);
-        ixi.addListener(new EffectListenerQueue(new CustomGossipListener().getEnvironment()));
+        // events are processed on the module's gossip workers once run() started them
+        ixi.addListener(context.createGossipProcessor(new CustomGossipListener(context)));
     }
 
     @Override
@@ -46,29 +46,46 @@ public class Module extends IxiModule {
 
     @Override
     public void onStart() {
-        log.info("Starting ReportIxi ...");
+        log.info("Starting Measure.ixi {} ...", Constants.VERSION);
 
 
     }
+
+    @Override
+    public void onTerminate() {
+        context.stopMetrics();
+        context.stopLoadGenerator();
+        context.stopFleetMonitor();
+        context.stopGossipProcessing();
+        context.stopSync();
+        context.stopReporting();
+        context.closeStore();
+        IctRestCaller.shutdown();
+    }
     public void run() {
-        // submit a new transaction
-        TransactionBuilder builder = new TransactionBuilder();
-        builder.asciiMessage("Hello World!");
-        Transaction toSubmit = builder.build();
-        context.getConfiguration();
+        final ProbeTracker probes = context.getProbeTracker();
+        context.openStore();
+        context.startGossipProcessing();
+        context.startReporting();
+        context.startSync();
+        context.startLoadGenerator(ixi);
+        context.startFleetMonitor();
+        context.startMetrics();
 
         try {
             while (true) {
-
-                ixi.submit(toSubmit);
-                System.out.println("Sende");
-
-                Thread.sleep(10000);
+                // submit a new probe and give up on the ones which did not come back in time
+                final Transaction probe = probes.buildProbe();
+                final Object event = Events.SINK.beginSubmit();
+                ixi.submit(probe);
+                Events.SINK.endSubmit(event, probe.tag);
+                probes.expire(Constants.PROBE_TIMEOUT);
+
+                Thread.sleep(Constants.PROBE_INTERVAL);
             }
         } catch (InterruptedException e) {
             if (isRunning()) {
-                e.printStackTrace();
-
+                log.error("Measure.ixi was interrupted while running", e);
                 throw new RuntimeException(e);
             }
         }
@@ -83,20 +100,3 @@ public class Module extends IxiModule {
         return context;
     }
 }
-
-/**
- * A custom gossip listener which prints every message submitted or received.
- * */
-class CustomGossipListener implements GossipListener {
-
-
-    @Override
-    public void onReceive(GossipEvent effect) {
-        System.out.println("Received tx hash : " + effect.getTransaction().hash);
-    }
-
-    @Override
-    public Environment getEnvironment() {
-        return new Environment("MyModule.env");
-    }
-}
\ No newline at end of file
@@ -18,7 +18,7 @@ public class Migrator {
 
     public static void migrateIfConfigurationMissing() {
         if (!Migrator.configurationExists()) {
-            log.debug("No configuration found for Measure.ixi-" + Constants.VERSION);
+            log.debug("No configuration found for Measure.ixi-{}", Constants.VERSION);
             if (Migrator.migrate(Constants.getPreviousVersions())) {
                 log.info("Measure.ixi config migration completed successfully.");
             } else {
@@ -45,19 +45,18 @@ public class Migrator {
         final File toConfig = new File(Constants.MEASURE_IXI_CONFIG_FILE);
 
         if (!oldConfig.exists()) {
-            log.info("Could not migrate from old configuration " + oldConfig.getPath() + " because it doesn't exist.");
+            log.info("Could not migrate from old configuration {} because it doesn't exist.", oldConfig.getPath());
             return false;
         }
         if (toConfig.exists()) {
-            log.info("Destination configuration file " + toConfig.getPath() + " already exists. Aborting migration.");
+            log.info("Destination configuration file {} already exists. Aborting migration.", toConfig.getPath());
             return false;
         }
 
         try {
             return copyFile(oldConfig, toConfig);
         } catch (IOException e) {
-            e.printStackTrace();
-            log.error("Failed to copy configuration " + oldConfig.getPath() + " to " + toConfig.getPath());
+            log.error("Failed to copy configuration {} to {}", oldConfig.getPath(), toConfig.getPath(), e);
         }
         return false;
     }
@@ -65,11 +64,11 @@ public class Migrator {
     public static boolean copyFile(File sourceFile, File destFile) throws IOException {
         if (!destFile.exists()) {
             if (!destFile.createNewFile()) {
-                log.error("Migration failed, could not create destination file: " + destFile.getPath());
+                log.error("Migration failed, could not create destination file: {}", destFile.getPath());
                 return false;
             }
 
-            log.info("Migrating configuration from " + sourceFile.getPath() + " to " + destFile.getPath() + "...");
+            log.info("Migrating configuration from {} to {}...", sourceFile.getPath(), destFile.getPath());
             FileChannel source = null;
             FileChannel destination = null;
 
@@ -87,7 +86,7 @@ public class Migrator {
             }
             return true;
         } else {
-            log.info("Aborted migration because the destination file already exists: " + destFile.getPath());
+            log.info("Aborted migration because the destination file already exists: {}", destFile.getPath());
             return false;
         }
     }
@@ -0,0 +1,352 @@
+package org.iota.ixi.fleet;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.iota.ixi.model.IctNeighborStats;
+import org.iota.ixi.utils.Constants;
+import org.iota.ixi.utils.IctRestCaller;
+import org.iota.ixi.utils.NamedThreadFactory;
+import org.iota.ixi.utils.NeighborStatsParser;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monitors the REST APIs of a fleet of Icts. A single scheduler thread decides which nodes are due and a single
+ * I/O thread of a non-blocking HTTP client carries all requests, so the number of threads does not grow with the
+ * number of nodes.
+ *
+ * Every node is polled once per its own round duration, calling /getInfo, /getConfig and /getNeighbors concurrently.
+ * Nodes are isolated from each other: a node is never polled again while a poll of it is in flight, and failing
+ * nodes back off exponentially up to {@link Constants#FLEET_MAX_BACKOFF} milliseconds. The connection pool grows
+ * with the fleet to one connection per route of every node, so slow nodes never hold connections healthy ones wait for.
+ * Responses are limited to {@link Constants#FLEET_MAX_RESPONSE_SIZE} bytes and parsed on the scheduler thread, so a
+ * node with a large response does not hold up the I/O of the others.
+ * */
+public class FleetMonitor {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/FleetMonitor");
+
+    private static final long TICK = 1000;
+    private static final int MIN_PERIOD = 1000;
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+    private static final String[] ROUTES = {"getInfo", "getConfig", "getNeighbors"};
+
+    private final int tail;
+    private final int timeoutMillis;
+    private final int defaultRoundDuration;
+    private volatile List<NodeMonitor> monitors = Collections.emptyList();
+    private volatile CloseableHttpAsyncClient client = null;
+    private PoolingNHttpClientConnectionManager connectionManager = null;
+    // also parses the responses, see Poll
+    private volatile ScheduledExecutorService scheduler = null;
+
+    /**
+     * @param tail                 number of stats records kept per neighbor
+     * @param timeoutMillis        connect and read timeout of every request
+     * @param defaultRoundDuration polling period of a node until its round duration is known
+     * */
+    public FleetMonitor(final int tail, final int timeoutMillis, final int defaultRoundDuration) {
+        this.tail = tail;
+        this.timeoutMillis = timeoutMillis;
+        this.defaultRoundDuration = defaultRoundDuration;
+    }
+
+    /**
+     * Replaces the monitored nodes. Nodes which are unchanged keep their state.
+     * */
+    public synchronized void configure(final List<IctNode> nodes) {
+        final List<NodeMonitor> updated = new ArrayList<>(nodes.size());
+        for (IctNode node : nodes) {
+            NodeMonitor monitor = null;
+            for (NodeMonitor existing : monitors) {
+                if (existing.node.getName().equals(node.getName()) && existing.node.sameEndpoint(node)) {
+                    monitor = existing;
+                }
+            }
+            updated.add(monitor != null ? monitor : new NodeMonitor(node));
+        }
+        monitors = Collections.unmodifiableList(updated);
+        if (connectionManager != null) {
+            connectionManager.setMaxTotal(poolSize());
+        }
+    }
+
+    private int poolSize() {
+        // at most one poll per node is in flight, and it requests every route once
+        return Math.max(1, monitors.size()) * ROUTES.length;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .build();
+        final NamedThreadFactory ioThreadFactory = new NamedThreadFactory("MeasureIxi-fleet-io");
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(
+                    IOReactorConfig.custom().setIoThreadCount(1).build(), ioThreadFactory));
+        } catch (IOReactorException e) {
+            log.error("Failed to start fleet monitor: {}", e.toString());
+            return;
+        }
+        connectionManager.setMaxTotal(poolSize());
+        connectionManager.setDefaultMaxPerRoute(ROUTES.length);
+        client = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionManager(connectionManager)
+                .setThreadFactory(ioThreadFactory)
+                .build();
+        client.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("MeasureIxi-fleet"));
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                final long now = System.currentTimeMillis();
+                for (NodeMonitor monitor : monitors) {
+                    if (now >= monitor.nextPollAt) {
+                        monitor.poll(null);
+                    }
+                }
+            }
+        }, 0, TICK, TimeUnit.MILLISECONDS);
+        log.info("Monitoring {} Ict nodes", monitors.size());
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.error("Failed to close fleet monitor client: {}", e.toString());
+        }
+        client = null;
+        connectionManager = null;
+    }
+
+    /**
+     * Polls all nodes which are not being polled right now, regardless of their schedule.
+     * @return a latch released once all polls started by this call completed
+     * */
+    public CountDownLatch pollAll() {
+        final List<NodeMonitor> monitors = this.monitors;
+        final CountDownLatch done = new CountDownLatch(monitors.size());
+        for (NodeMonitor monitor : monitors) {
+            if (!monitor.poll(done)) {
+                done.countDown();
+            }
+        }
+        return done;
+    }
+
+    public List<NodeSnapshot> getSnapshots() {
+        final List<NodeMonitor> monitors = this.monitors;
+        final List<NodeSnapshot> snapshots = new ArrayList<>(monitors.size());
+        for (NodeMonitor monitor : monitors) {
+            snapshots.add(monitor.snapshot);
+        }
+        return snapshots;
+    }
+
+    private class NodeMonitor {
+
+        private final IctNode node;
+        private final AtomicBoolean inFlight = new AtomicBoolean(false);
+        private volatile NodeSnapshot snapshot;
+        private volatile long nextPollAt = 0;
+
+        private NodeMonitor(final IctNode node) {
+            this.node = node;
+            this.snapshot = NodeSnapshot.initial(node, defaultRoundDuration);
+        }
+
+        /**
+         * @return {@code false} if a poll is already in flight
+         * */
+        private boolean poll(final CountDownLatch done) {
+            if (!inFlight.compareAndSet(false, true)) {
+                return false;
+            }
+            new Poll(this, done).send();
+            return true;
+        }
+
+        private void complete(final Poll poll) {
+            final NodeSnapshot previous = snapshot;
+            final long now = System.currentTimeMillis();
+            final boolean up = poll.error == null;
+            final int failures = up ? 0 : previous.getConsecutiveFailures() + 1;
+            final int roundDuration = poll.roundDuration > 0 ? poll.roundDuration : previous.getRoundDuration();
+            snapshot = new NodeSnapshot(node, now,
+                    up ? now : previous.getSucceededAt(),
+                    up,
+                    failures,
+                    previous.getPolls() + 1,
+                    previous.getFailures() + (up ? 0 : 1),
+                    up ? previous.getLastError() : poll.error,
+                    System.nanoTime() - poll.startNanos,
+                    poll.version != null ? poll.version : previous.getVersion(),
+                    roundDuration,
+                    poll.neighbors != null ? poll.neighbors : previous.getNeighbors());
+
+            final long period = Math.max(MIN_PERIOD, roundDuration);
+            final long delay = up ? period : Math.min(Constants.FLEET_MAX_BACKOFF, period << Math.min(failures, MAX_BACKOFF_EXPONENT));
+            nextPollAt = now + delay;
+            if (!up) {
+                log.debug("Polling Ict node {} failed {} times in a row: {}", node.getName(), failures, poll.error);
+            }
+            inFlight.set(false);
+        }
+    }
+
+    /**
+     * One round of concurrent calls to a node. Responses are buffered on the I/O thread and parsed on the scheduler.
+     * */
+    private class Poll {
+
+        private final NodeMonitor monitor;
+        private final CountDownLatch done;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger pending = new AtomicInteger(ROUTES.length);
+        // written before pending is decremented and read after it reached 0
+        private volatile String version = null;
+        private volatile int roundDuration = -1;
+        private volatile List<IctNeighborStats> neighbors = null;
+        private volatile String error = null;
+
+        private Poll(final NodeMonitor monitor, final CountDownLatch done) {
+            this.monitor = monitor;
+            this.done = done;
+        }
+
+        private void send() {
+            final IctNode node = monitor.node;
+            for (final String route : ROUTES) {
+                try {
+                    client.execute(HttpAsyncMethods.create(IctRestCaller.buildRequest(node.getHost(), node.getPort(), node.getPassword(), route)),
+                            new LimitedResponseConsumer(Constants.FLEET_MAX_RESPONSE_SIZE), new FutureCallback<HttpResponse>() {
+                        @Override
+                        public void completed(final HttpResponse response) {
+                            readLater(route, response);
+                        }
+
+                        @Override
+                        public void failed(final Exception e) {
+                            fail(route, e.toString());
+                            finish();
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            fail(route, "cancelled");
+                            finish();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // the client was closed or the request is invalid
+                    fail(route, e.toString());
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * Hands a buffered response to the scheduler so parsing does not block the I/O thread.
+         * */
+        private void readLater(final String route, final HttpResponse response) {
+            final ScheduledExecutorService scheduler = FleetMonitor.this.scheduler;
+            if (scheduler != null) {
+                try {
+                    scheduler.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                read(route, response);
+                            } catch (IOException | RuntimeException e) {
+                                fail(route, e.toString());
+                            }
+                            finish();
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // stopped meanwhile
+                }
+            }
+            EntityUtils.consumeQuietly(response.getEntity());
+            fail(route, "fleet monitor stopped");
+            finish();
+        }
+
+        private void read(final String route, final HttpResponse response) throws IOException {
+            final HttpEntity entity = response.getEntity();
+            final int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != 200 || entity == null) {
+                EntityUtils.consumeQuietly(entity);
+                fail(route, "status code " + statusCode);
+                return;
+            }
+            switch (route) {
+                case "getInfo":
+                    version = new JSONObject(EntityUtils.toString(entity, "UTF-8")).getString("version");
+                    break;
+                case "getConfig":
+                    roundDuration = new JSONObject(EntityUtils.toString(entity, "UTF-8")).getNumber("round_duration").intValue();
+                    break;
+                default:
+                    try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+                        neighbors = new NeighborStatsParser(tail).parse(reader);
+                    }
+            }
+        }
+
+        private void fail(final String route, final String cause) {
+            if (error == null) {
+                error = "/" + route + ": " + cause;
+            }
+        }
+
+        private void finish() {
+            if (pending.decrementAndGet() == 0) {
+                monitor.complete(this);
+                if (done != null) {
+                    done.countDown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.iota.ixi.fleet;
+
+import org.json.JSONObject;
+
+/**
+ * An Ict whose REST API is monitored by the {@link FleetMonitor}. Immutable.
+ * */
+public class IctNode {
+
+    private final String name;
+    private final String host;
+    private final int port;
+    private final String password;
+
+    public IctNode(final String name, final String host, final int port, final String password) {
+        this.name = name;
+        this.host = host;
+        this.port = port;
+        this.password = password;
+    }
+
+    /**
+     * @param json {@code {"name": ..., "host": ..., "port": ..., "password": ...}}, the name defaults to host:port
+     * */
+    public static IctNode fromJSON(final JSONObject json) {
+        final String host = json.getString("host");
+        final int port = json.getInt("port");
+        final String name = json.has("name") ? json.getString("name") : host + ":" + port;
+        return new IctNode(name, host, port, json.getString("password"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * @return {@code true} if both describe the same REST API with the same credentials
+     * */
+    boolean sameEndpoint(final IctNode other) {
+        return host.equals(other.host) && port == other.port && password.equals(other.password);
+    }
+
+    @Override
+    public String toString() {
+        return "IctNode{" +
+                "name='" + name + '\'' +
+                ", host='" + host + '\'' +
+                ", port=" + port +
+                '}';
+    }
+}
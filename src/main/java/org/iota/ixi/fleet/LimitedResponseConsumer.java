@@ -0,0 +1,72 @@
+package org.iota.ixi.fleet;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * Buffers a response in memory like the default consumer of the async client, but fails it as soon as its body
+ * exceeds a maximum size. A node with an oversized response therefore fails its own poll instead of growing the
+ * buffers of the I/O thread all nodes share.
+ * */
+class LimitedResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final long maxSize;
+    private volatile HttpResponse response;
+    private volatile SimpleInputBuffer buffer;
+    private long received = 0;
+
+    /**
+     * @param maxSize maximum length of the response body in bytes
+     * */
+    LimitedResponseConsumer(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected void onResponseReceived(final HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType) throws IOException {
+        final long length = entity.getContentLength();
+        if (length > maxSize) {
+            throw new ContentTooLongException("response of " + length + " bytes exceeds the limit of " + maxSize + " bytes");
+        }
+        buffer = new SimpleInputBuffer(length < 0 ? INITIAL_BUFFER_SIZE : (int) length, HeapByteBufferAllocator.INSTANCE);
+        response.setEntity(new ContentBufferEntity(entity, buffer));
+    }
+
+    @Override
+    protected void onContentReceived(final ContentDecoder decoder, final IOControl ioControl) throws IOException {
+        final int read = buffer.consumeContent(decoder);
+        // chunked responses announce no length, so the limit is checked as the body arrives
+        if (read > 0 && (received += read) > maxSize) {
+            throw new ContentTooLongException("response exceeds the limit of " + maxSize + " bytes");
+        }
+    }
+
+    @Override
+    protected HttpResponse buildResult(final HttpContext context) {
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        response = null;
+        buffer = null;
+    }
+}
@@ -0,0 +1,138 @@
+package org.iota.ixi.fleet;
+
+import org.iota.ixi.model.IctNeighborStats;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state of a monitored {@link IctNode} after its last poll. Immutable, the neighbors of the last successful poll
+ * are kept while a node fails.
+ * */
+public class NodeSnapshot {
+
+    private final IctNode node;
+    private final long polledAt;
+    private final long succeededAt;
+    private final boolean up;
+    private final int consecutiveFailures;
+    private final long polls;
+    private final long failures;
+    private final String lastError;
+    private final long latencyNanos;
+    private final String version;
+    private final int roundDuration;
+    private final List<IctNeighborStats> neighbors;
+
+    NodeSnapshot(final IctNode node, final long polledAt, final long succeededAt, final boolean up,
+                 final int consecutiveFailures, final long polls, final long failures, final String lastError,
+                 final long latencyNanos, final String version, final int roundDuration,
+                 final List<IctNeighborStats> neighbors) {
+        this.node = node;
+        this.polledAt = polledAt;
+        this.succeededAt = succeededAt;
+        this.up = up;
+        this.consecutiveFailures = consecutiveFailures;
+        this.polls = polls;
+        this.failures = failures;
+        this.lastError = lastError;
+        this.latencyNanos = latencyNanos;
+        this.version = version;
+        this.roundDuration = roundDuration;
+        this.neighbors = Collections.unmodifiableList(neighbors);
+    }
+
+    static NodeSnapshot initial(final IctNode node, final int roundDuration) {
+        return new NodeSnapshot(node, 0, 0, false, 0, 0, 0, null, 0, null, roundDuration,
+                Collections.<IctNeighborStats>emptyList());
+    }
+
+    public IctNode getNode() {
+        return node;
+    }
+
+    public long getPolledAt() {
+        return polledAt;
+    }
+
+    public long getSucceededAt() {
+        return succeededAt;
+    }
+
+    /**
+     * @return {@code true} if all calls of the last poll succeeded
+     * */
+    public boolean isUp() {
+        return up;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public long getPolls() {
+        return polls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return time from sending the first request to receiving the last response of the last poll
+     * */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getRoundDuration() {
+        return roundDuration;
+    }
+
+    public List<IctNeighborStats> getNeighbors() {
+        return neighbors;
+    }
+
+    public JSONObject toJSON() {
+        final JSONArray jsonNeighbors = new JSONArray();
+        for (IctNeighborStats neighbor : neighbors) {
+            final JSONObject jsonNeighbor = new JSONObject().put("address", neighbor.getAddress());
+            final int newest = neighbor.fromEnd(0);
+            if (newest >= 0) {
+                jsonNeighbor
+                        .put("timestamp", neighbor.getTimestamp(newest))
+                        .put("all", neighbor.getAll(newest))
+                        .put("new", neighbor.getNew(newest))
+                        .put("ignored", neighbor.getIgnored(newest))
+                        .put("invalid", neighbor.getInvalid(newest))
+                        .put("requested", neighbor.getRequested(newest));
+            }
+            jsonNeighbors.put(jsonNeighbor);
+        }
+        return new JSONObject()
+                .put("name", node.getName())
+                .put("host", node.getHost())
+                .put("port", node.getPort())
+                .put("up", up)
+                .put("polled_at", polledAt)
+                .put("succeeded_at", succeededAt)
+                .put("consecutive_failures", consecutiveFailures)
+                .put("polls", polls)
+                .put("failures", failures)
+                .put("last_error", lastError != null ? lastError : JSONObject.NULL)
+                .put("latency_ms", latencyNanos / 1e6)
+                .put("version", version != null ? version : JSONObject.NULL)
+                .put("round_duration", roundDuration)
+                .put("neighbors", jsonNeighbors);
+    }
+}
@@ -0,0 +1,173 @@
+package org.iota.ixi.gossip;
+
+import org.iota.ict.network.gossip.GossipEvent;
+import org.iota.ixi.metrics.LatencyHistogram;
+import org.iota.ixi.metrics.StripedCounter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded FIFO ring of gossip events which remembers when each event was queued, so that consumers can record
+ * how long events waited. Enqueueing and dequeueing do not allocate.
+ *
+ * Once {@link #close() closed}, the ring accepts no more events, so a consumer can drain it knowing nothing is
+ * left behind.
+ * */
+class GossipRing {
+
+    private final GossipEvent[] events;
+    private final long[] enqueuedAt;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int head = 0;
+    private int count = 0;
+    private volatile boolean closed = false;
+
+    GossipRing(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.events = new GossipEvent[capacity];
+        this.enqueuedAt = new long[capacity];
+    }
+
+    /**
+     * @return {@code false} if the ring is full or closed
+     * */
+    boolean offer(final GossipEvent event) {
+        lock.lock();
+        try {
+            if (closed || count == events.length) {
+                return false;
+            }
+            enqueue(event);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for room.
+     * @return {@code false} if the ring is still full or was closed
+     * */
+    boolean offer(final GossipEvent event, final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == events.length || closed) {
+                if (closed || nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(event);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enqueues the event, evicting the oldest one if the ring is full and counting it in {@code evicted}.
+     * @return {@code false} if the ring is closed
+     * */
+    boolean offerEvictingOldest(final GossipEvent event, final StripedCounter evicted) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (count == events.length) {
+                events[head] = null;
+                head = (head + 1) % events.length;
+                count--;
+                evicted.increment();
+            }
+            enqueue(event);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for an event and records how long it was queued in {@code lag}.
+     * @return the oldest event or {@code null} if the ring stayed empty
+     * */
+    GossipEvent poll(final long timeout, final TimeUnit unit, final LatencyHistogram lag) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue(lag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    GossipEvent poll(final LatencyHistogram lag) {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue(lag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rejects all further events, including those of producers waiting for room.
+     * */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return events.length;
+    }
+
+    private void enqueue(final GossipEvent event) {
+        final int tail = (head + count) % events.length;
+        events[tail] = event;
+        enqueuedAt[tail] = System.nanoTime();
+        count++;
+        notEmpty.signal();
+    }
+
+    private GossipEvent dequeue(final LatencyHistogram lag) {
+        final GossipEvent event = events[head];
+        lag.record(System.nanoTime() - enqueuedAt[head]);
+        events[head] = null;
+        head = (head + 1) % events.length;
+        count--;
+        notFull.signal();
+        return event;
+    }
+}
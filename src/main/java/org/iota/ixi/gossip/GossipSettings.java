@@ -0,0 +1,46 @@
+package org.iota.ixi.gossip;
+
+/**
+ * The configuration of the {@link ShardedGossipProcessor}. Immutable, replace it to reconfigure.
+ * */
+public class GossipSettings {
+
+    public static final int SAMPLE_RATE = 8;
+    public static final GossipSettings DEFAULT = new GossipSettings(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)), 8192, OverflowPolicy.DROP_OLDEST);
+
+    private final int workers;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    /**
+     * @param workers  number of shards, each processed by its own thread
+     * @param capacity maximum number of queued events per shard
+     * */
+    public GossipSettings(final int workers, final int capacity, final OverflowPolicy policy) {
+        this.workers = workers;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public String toString() {
+        return "GossipSettings{" +
+                "workers=" + workers +
+                ", capacity=" + capacity +
+                ", policy=" + policy +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package org.iota.ixi.gossip;
+
+/**
+ * What a {@link ShardedGossipProcessor} does with an event whose shard is full.
+ * */
+public enum OverflowPolicy {
+
+    /**
+     * Waits for the shard to make room. Applies back pressure to the Ict gossip dispatcher.
+     * */
+    BLOCK,
+
+    /**
+     * Evicts the oldest queued event of the shard to make room for the new one.
+     * */
+    DROP_OLDEST,
+
+    /**
+     * Once a shard is half full, only keeps one in {@link GossipSettings#SAMPLE_RATE} events, selected by hash so that
+     * all nodes sample the same transactions. Drops the new event if the shard is full nonetheless.
+     * */
+    SAMPLE
+}
@@ -0,0 +1,309 @@
+package org.iota.ixi.gossip;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import org.iota.ict.eee.Environment;
+import org.iota.ict.network.gossip.GossipEvent;
+import org.iota.ict.network.gossip.GossipListener;
+import org.iota.ixi.metrics.LatencyHistogram;
+import org.iota.ixi.metrics.StripedCounter;
+import org.iota.ixi.utils.LogRateLimiter;
+import org.iota.ixi.utils.NamedThreadFactory;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves gossip processing off the Ict dispatcher thread. Events are partitioned by transaction hash over a number of
+ * shards, each with a bounded {@link GossipRing} and its own worker thread calling the delegate. A full shard is
+ * handled according to the {@link OverflowPolicy}, so a slow delegate costs measurements instead of stalling Ict
+ * unless {@link OverflowPolicy#BLOCK} was chosen.
+ *
+ * While not started, events are passed to the delegate on the calling thread.
+ * */
+public class ShardedGossipProcessor implements GossipListener {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/ShardedGossipProcessor");
+
+    private static final long POLL_TIMEOUT = 100;
+    private static final int KEY_TRYTES = 6;
+
+    private final GossipListener delegate;
+    private final Environment environment;
+    private final ThreadFactory threadFactory = new NamedThreadFactory("MeasureIxi-gossip");
+
+    private final StripedCounter enqueued = new StripedCounter();
+    private final StripedCounter processed = new StripedCounter();
+    private final StripedCounter droppedOldest = new StripedCounter();
+    private final StripedCounter droppedNewest = new StripedCounter();
+    private final StripedCounter sampledOut = new StripedCounter();
+    private final StripedCounter blocked = new StripedCounter();
+    private final AtomicLong failed = new AtomicLong();
+    private final LogRateLimiter failureLog = new LogRateLimiter(1, 10, TimeUnit.SECONDS);
+    private final LatencyHistogram lag = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1));
+
+    // read by onReceive on the Ict dispatcher thread
+    private volatile GossipSettings settings = GossipSettings.DEFAULT;
+    private volatile Shard[] shards = null;
+
+    public ShardedGossipProcessor(final GossipListener delegate, final Environment environment) {
+        this.delegate = delegate;
+        this.environment = environment;
+    }
+
+    /**
+     * Applies new settings, restarting the workers if the processor is running. Events which still reach a stopped
+     * shard are handed to the new ones.
+     * */
+    public synchronized void configure(final GossipSettings settings) {
+        final boolean running = shards != null;
+        this.settings = settings;
+        if (running) {
+            stop();
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (shards != null) {
+            return;
+        }
+        log.info("Starting gossip processing: {}", settings);
+        final Shard[] shards = new Shard[settings.getWorkers()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(new GossipRing(settings.getCapacity()));
+            threadFactory.newThread(shards[i]).start();
+        }
+        this.shards = shards;
+    }
+
+    /**
+     * Stops the workers after they processed the events already queued.
+     * */
+    public synchronized void stop() {
+        final Shard[] shards = this.shards;
+        if (shards == null) {
+            return;
+        }
+        this.shards = null;
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+    }
+
+    @Override
+    public void onReceive(final GossipEvent event) {
+        final Shard[] shards = this.shards;
+        if (shards == null) {
+            process(event);
+            return;
+        }
+        final long key = key(event.getTransaction().hash);
+        final Shard shard = shards[(int) (key % shards.length)];
+        final GossipRing ring = shard.ring;
+
+        switch (settings.getPolicy()) {
+            case BLOCK:
+                if (ring.offer(event)) {
+                    break;
+                }
+                if (ring.isClosed()) {
+                    onReceive(event);
+                    return;
+                }
+                blocked.increment();
+                try {
+                    while (!ring.offer(event, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                        if (ring.isClosed()) {
+                            onReceive(event);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedNewest.increment();
+                    return;
+                }
+                break;
+            case DROP_OLDEST:
+                if (!ring.offerEvictingOldest(event, droppedOldest)) {
+                    onReceive(event);
+                    return;
+                }
+                break;
+            case SAMPLE:
+                // the key modulo the shard count picked the shard, sample on the remaining digits
+                if (ring.size() >= ring.capacity() / 2 && (key / shards.length) % GossipSettings.SAMPLE_RATE != 0) {
+                    sampledOut.increment();
+                    return;
+                }
+                if (!ring.offer(event)) {
+                    if (ring.isClosed()) {
+                        onReceive(event);
+                    } else {
+                        droppedNewest.increment();
+                    }
+                    return;
+                }
+                break;
+        }
+        enqueued.increment();
+    }
+
+    private void process(final GossipEvent event) {
+        try {
+            delegate.onReceive(event);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            if (failureLog.tryAcquire()) {
+                log.error("Failed to process gossip event, {} failures suppressed since the last one logged", Unbox.box(failureLog.drainSuppressed()), e);
+            }
+        }
+        processed.increment();
+    }
+
+    /**
+     * Interprets the leading trytes of a hash as a base 27 number. Transaction hashes end with zero trits
+     * because of the proof of work, but their leading trytes are evenly distributed.
+     * */
+    static long key(final String hash) {
+        if (hash == null) {
+            return 0;
+        }
+        long key = 0;
+        final int length = Math.min(KEY_TRYTES, hash.length());
+        for (int i = 0; i < length; i++) {
+            final char tryte = hash.charAt(i);
+            key = key * 27 + (tryte == '9' ? 0 : ((tryte - 'A' + 1) & 31) % 27);
+        }
+        return key;
+    }
+
+    @Override
+    public Environment getEnvironment() {
+        return environment;
+    }
+
+    public GossipSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return number of events queued in each shard, empty if not running
+     * */
+    public int[] getDepths() {
+        final Shard[] shards = this.shards;
+        if (shards == null) {
+            return new int[0];
+        }
+        final int[] depths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = shards[i].ring.size();
+        }
+        return depths;
+    }
+
+    /**
+     * @return number of events queued in shard {@code index}, 0 if there is no such shard
+     * */
+    public int getDepth(final int index) {
+        final Shard[] shards = this.shards;
+        return shards != null && index < shards.length ? shards[index].ring.size() : 0;
+    }
+
+    public int getShardCount() {
+        final Shard[] shards = this.shards;
+        return shards != null ? shards.length : 0;
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getDroppedOldest() {
+        return droppedOldest.sum();
+    }
+
+    public long getDroppedNewest() {
+        return droppedNewest.sum();
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the live histogram of how long events were queued, in nanoseconds
+     * */
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    public JSONObject getStats() {
+        final GossipSettings settings = getSettings();
+        final JSONArray depths = new JSONArray();
+        for (int depth : getDepths()) {
+            depths.put(depth);
+        }
+        return new JSONObject()
+                .put("workers", settings.getWorkers())
+                .put("capacity", settings.getCapacity())
+                .put("policy", settings.getPolicy().name())
+                .put("depth", depths)
+                .put("enqueued", getEnqueued())
+                .put("processed", getProcessed())
+                .put("dropped", new JSONObject()
+                        .put("oldest", getDroppedOldest())
+                        .put("newest", getDroppedNewest())
+                        .put("sampled", getSampledOut()))
+                .put("blocked", getBlocked())
+                .put("failed", getFailed())
+                .put("lag", lag.snapshot().toJSON(TimeUnit.NANOSECONDS));
+    }
+
+    private class Shard implements Runnable {
+
+        private final GossipRing ring;
+        private volatile boolean running = true;
+
+        private Shard(final GossipRing ring) {
+            this.ring = ring;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    final GossipEvent event = ring.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS, lag);
+                    if (event != null) {
+                        process(event);
+                    }
+                }
+                // finish the events queued before the processor was stopped, later ones go to the current shards
+                ring.close();
+                GossipEvent event;
+                while ((event = ring.poll(lag)) != null) {
+                    process(event);
+                }
+            } catch (InterruptedException e) {
+                // the module is terminating
+            }
+        }
+    }
+}
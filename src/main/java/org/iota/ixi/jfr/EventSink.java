@@ -0,0 +1,28 @@
+package org.iota.ixi.jfr;
+
+/**
+ * Receives the timed sections of the module. Each {@code begin} method returns a token which must be passed to
+ * the matching {@code end} method, {@code null} tokens are allowed.
+ * */
+public interface EventSink {
+
+    Object beginGossip();
+
+    void endGossip(Object token, boolean own, String tag);
+
+    Object beginRestCall();
+
+    /**
+     * @param status HTTP status code, -1 if no response was received
+     * @param bytes  length of the response body, -1 if unknown
+     * */
+    void endRestCall(Object token, String route, int status, long bytes);
+
+    Object beginSync();
+
+    void endSync(Object token, int neighbors, boolean complete);
+
+    Object beginSubmit();
+
+    void endSubmit(Object token, String tag);
+}
@@ -0,0 +1,69 @@
+package org.iota.ixi.jfr;
+
+/**
+ * Entry point for the Java Flight Recorder events of the module.
+ *
+ * The event classes are compiled separately for Java 11 (see {@code src/jfr}) because the module itself targets
+ * Java 7. They are only loaded if the running JVM ships {@code jdk.jfr}, otherwise every call is a no-op.
+ * */
+public final class Events {
+
+    private static final String JFR_SINK = "org.iota.ixi.jfr.JfrEventSink";
+
+    public static final EventSink SINK = load();
+
+    private Events() {
+    }
+
+    private static EventSink load() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return (EventSink) Class.forName(JFR_SINK).newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | LinkageError e) {
+            return new NoopEventSink();
+        }
+    }
+
+    public static boolean isFlightRecorderAvailable() {
+        return !(SINK instanceof NoopEventSink);
+    }
+
+    private static class NoopEventSink implements EventSink {
+
+        @Override
+        public Object beginGossip() {
+            return null;
+        }
+
+        @Override
+        public void endGossip(final Object token, final boolean own, final String tag) {
+        }
+
+        @Override
+        public Object beginRestCall() {
+            return null;
+        }
+
+        @Override
+        public void endRestCall(final Object token, final String route, final int status, final long bytes) {
+        }
+
+        @Override
+        public Object beginSync() {
+            return null;
+        }
+
+        @Override
+        public void endSync(final Object token, final int neighbors, final boolean complete) {
+        }
+
+        @Override
+        public Object beginSubmit() {
+            return null;
+        }
+
+        @Override
+        public void endSubmit(final Object token, final String tag) {
+        }
+    }
+}
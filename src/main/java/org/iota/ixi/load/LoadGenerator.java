@@ -0,0 +1,168 @@
+package org.iota.ixi.load;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import org.iota.ict.ixi.Ixi;
+import org.iota.ict.model.transaction.Transaction;
+import org.iota.ict.model.transaction.TransactionBuilder;
+import org.iota.ixi.jfr.Events;
+import org.iota.ixi.metrics.LatencyHistogram;
+import org.iota.ixi.utils.Constants;
+import org.iota.ixi.utils.LogRateLimiter;
+import org.iota.ixi.utils.NamedThreadFactory;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Submits transactions tagged with {@link Constants#LOAD_TAG} at a rate shaped by a {@link LoadProfile}, to
+ * stress-test the Ict this module runs on. Several threads share one {@link Pacer}. The generator reports the
+ * achieved rate against the target and how late threads woke up for their slots.
+ * */
+public class LoadGenerator {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/LoadGenerator");
+
+    // the message of a single transaction holds 2187 trytes, two trytes per ascii character
+    public static final int MAX_MESSAGE_SIZE = 1093;
+    private static final char[] MESSAGE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private final Ixi ixi;
+    private final ThreadFactory threadFactory = new NamedThreadFactory("MeasureIxi-load");
+    private final LatencyHistogram drift = new LatencyHistogram(TimeUnit.SECONDS.toNanos(10));
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LogRateLimiter failureLog = new LogRateLimiter(1, 10, TimeUnit.SECONDS);
+
+    private LoadSettings settings = LoadSettings.DISABLED;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile Pacer pacer = null;
+    private volatile long startNanos = 0;
+    private volatile long startSubmitted = 0;
+
+    public LoadGenerator(final Ixi ixi) {
+        this.ixi = ixi;
+    }
+
+    /**
+     * Applies new settings, restarting the submitting threads if the generator is running.
+     * */
+    public synchronized void configure(final LoadSettings settings) {
+        final boolean running = !workers.isEmpty();
+        this.settings = settings;
+        if (running) {
+            stop();
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (!workers.isEmpty() || !settings.isEnabled()) {
+            return;
+        }
+        log.info("Starting load generator: {}", settings);
+        startNanos = System.nanoTime();
+        startSubmitted = submitted.get();
+        pacer = new Pacer(settings, startNanos);
+        for (int i = 0; i < settings.getThreads(); i++) {
+            final Thread worker = threadFactory.newThread(new Submitter(settings, pacer));
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public synchronized void stop() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        workers.clear();
+        pacer = null;
+    }
+
+    private class Submitter implements Runnable {
+
+        private final LoadSettings settings;
+        private final Pacer pacer;
+        private final Random random = new Random();
+        private final char[] message;
+
+        private Submitter(final LoadSettings settings, final Pacer pacer) {
+            this.settings = settings;
+            this.pacer = pacer;
+            this.message = new char[Math.min(MAX_MESSAGE_SIZE, settings.getMaxMessageSize())];
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    drift.record(pacer.acquire());
+                    try {
+                        final TransactionBuilder builder = new TransactionBuilder();
+                        builder.tag = Constants.LOAD_TAG;
+                        builder.asciiMessage(nextMessage());
+                        final Transaction transaction = builder.build();
+                        final Object event = Events.SINK.beginSubmit();
+                        ixi.submit(transaction);
+                        Events.SINK.endSubmit(event, Constants.LOAD_TAG);
+                        submitted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        if (failureLog.tryAcquire()) {
+                            log.debug("Failed to submit load transaction, {} failures suppressed since the last one logged: {}",
+                                    Unbox.box(failureLog.drainSuppressed()), e.toString());
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                // stopped or reconfigured
+            }
+        }
+
+        private String nextMessage() {
+            final int min = Math.min(settings.getMinMessageSize(), message.length);
+            final int length = min + random.nextInt(message.length - min + 1);
+            for (int i = 0; i < length; i++) {
+                message[i] = MESSAGE_ALPHABET[random.nextInt(MESSAGE_ALPHABET.length)];
+            }
+            return new String(message, 0, length);
+        }
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public JSONObject getStats() {
+        final Pacer pacer = this.pacer;
+        final LoadSettings settings;
+        synchronized (this) {
+            settings = this.settings;
+        }
+        final JSONObject stats = new JSONObject()
+                .put("running", pacer != null)
+                .put("profile", settings.getProfile().name())
+                .put("target_tps", settings.getTargetTps())
+                .put("submitted", getSubmitted())
+                .put("failed", getFailed())
+                .put("drift", drift.snapshot().toJSON(TimeUnit.NANOSECONDS));
+        if (pacer != null) {
+            final long elapsedNanos = System.nanoTime() - startNanos;
+            final double seconds = elapsedNanos / 1e9;
+            stats.put("current_target_tps", settings.rate(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)))
+                    .put("mean_target_tps", seconds > 0 ? pacer.getExpected() / seconds : 0)
+                    .put("achieved_tps", seconds > 0 ? (getSubmitted() - startSubmitted) / seconds : 0);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,48 @@
+package org.iota.ixi.load;
+
+/**
+ * Shapes the target rate of the {@link LoadGenerator} over time.
+ * */
+public enum LoadProfile {
+
+    /** Always the target rate. */
+    CONSTANT {
+        @Override
+        public double rate(final double targetTps, final long elapsed, final long period) {
+            return targetTps;
+        }
+    },
+
+    /** Rises linearly from 0 to the target rate within one period, then holds it. */
+    RAMP {
+        @Override
+        public double rate(final double targetTps, final long elapsed, final long period) {
+            return targetTps * Math.min(1.0, (double) elapsed / period);
+        }
+    },
+
+    /** Climbs to the target rate in {@link #STEPS} equal steps, one per period, then holds it. */
+    STEP {
+        @Override
+        public double rate(final double targetTps, final long elapsed, final long period) {
+            return targetTps * Math.min(STEPS, elapsed / period + 1) / STEPS;
+        }
+    },
+
+    /** Alternates between the target rate and no load, one period each. */
+    SQUARE {
+        @Override
+        public double rate(final double targetTps, final long elapsed, final long period) {
+            return (elapsed / period) % 2 == 0 ? targetTps : 0;
+        }
+    };
+
+    private static final int STEPS = 4;
+
+    /**
+     * @param elapsed milliseconds since the load generator was started
+     * @param period  length of one period of the profile in milliseconds
+     * @return transactions per second to submit at that time
+     * */
+    public abstract double rate(double targetTps, long elapsed, long period);
+}
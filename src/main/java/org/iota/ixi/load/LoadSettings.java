@@ -0,0 +1,76 @@
+package org.iota.ixi.load;
+
+/**
+ * The configuration of the {@link LoadGenerator}. Immutable, replace it to reconfigure.
+ * */
+public class LoadSettings {
+
+    public static final LoadSettings DISABLED = new LoadSettings(0, LoadProfile.CONSTANT, 60000, 0, 0, 1);
+
+    private final double targetTps;
+    private final LoadProfile profile;
+    private final long period;
+    private final int minMessageSize;
+    private final int maxMessageSize;
+    private final int threads;
+
+    /**
+     * @param period         length of one period of the profile in milliseconds
+     * @param minMessageSize minimum length of the ascii message of each transaction
+     * @param maxMessageSize maximum length of the ascii message of each transaction
+     * @param threads        number of threads submitting transactions
+     * */
+    public LoadSettings(final double targetTps, final LoadProfile profile, final long period,
+                        final int minMessageSize, final int maxMessageSize, final int threads) {
+        this.targetTps = targetTps;
+        this.profile = profile;
+        this.period = period;
+        this.minMessageSize = minMessageSize;
+        this.maxMessageSize = maxMessageSize;
+        this.threads = threads;
+    }
+
+    public boolean isEnabled() {
+        return targetTps > 0;
+    }
+
+    public double getTargetTps() {
+        return targetTps;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    public int getMinMessageSize() {
+        return minMessageSize;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double rate(final long elapsed) {
+        return profile.rate(targetTps, elapsed, period);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadSettings{" +
+                "targetTps=" + targetTps +
+                ", profile=" + profile +
+                ", period=" + period +
+                ", minMessageSize=" + minMessageSize +
+                ", maxMessageSize=" + maxMessageSize +
+                ", threads=" + threads +
+                '}';
+    }
+}
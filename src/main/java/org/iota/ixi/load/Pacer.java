@@ -0,0 +1,79 @@
+package org.iota.ixi.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket shared by all submitting threads. Tokens accrue at the rate of the {@link LoadProfile} and are
+ * credited up to a burst of {@link #BURST_SECONDS} worth. A thread which finds the bucket empty reserves the next
+ * token in advance and sleeps until it is due, so the bucket may run into debt while threads are waiting.
+ * */
+class Pacer {
+
+    private static final double BURST_SECONDS = 0.1;
+    // tokens further away than this are not reserved, the rate may change until then
+    private static final long MAX_RESERVATION_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final LoadSettings settings;
+    private final long startNanos;
+    private long lastNanos;
+    private double lastRate;
+    private double tokens = 0;
+    private double expected = 0;
+
+    Pacer(final LoadSettings settings, final long startNanos) {
+        this.settings = settings;
+        this.startNanos = startNanos;
+        this.lastNanos = startNanos;
+        this.lastRate = settings.rate(0);
+    }
+
+    /**
+     * Waits for the next token.
+     * @return nanoseconds the caller was woken up after its token was due, the scheduling drift.
+     * */
+    long acquire() throws InterruptedException {
+        long slot;
+        while ((slot = reserve()) < 0) {
+            TimeUnit.NANOSECONDS.sleep(MAX_RESERVATION_NANOS);
+        }
+        final long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return Math.max(0, System.nanoTime() - slot);
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} the reserved token is due at or -1 if no token is due soon.
+     * */
+    private synchronized long reserve() {
+        final long now = System.nanoTime();
+        final double rate = settings.rate(TimeUnit.NANOSECONDS.toMillis(now - startNanos));
+        final double seconds = (now - lastNanos) / 1e9;
+        expected += (rate + lastRate) / 2 * seconds;
+        tokens = Math.min(Math.max(1, rate * BURST_SECONDS), tokens + rate * seconds);
+        lastNanos = now;
+        lastRate = rate;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return now;
+        }
+        if (rate <= 0) {
+            return -1;
+        }
+        final long wait = (long) ((1 - tokens) / rate * 1e9);
+        if (wait > MAX_RESERVATION_NANOS) {
+            return -1;
+        }
+        tokens -= 1;
+        return now + wait;
+    }
+
+    /**
+     * @return number of transactions the profile asked for so far.
+     * */
+    synchronized double getExpected() {
+        return expected;
+    }
+}
@@ -0,0 +1,169 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts re-gossip: transactions Ict gossips which it gossiped before.
+ *
+ * Ict only emits gossip for transactions it did not store yet, so the duplicates neighbors send are never seen here.
+ * Ict counts those itself as ignored transactions, see the neighbor stats. Own transactions are not checked either.
+ * What is left are transactions gossiped again after Ict dropped them from its tangle, which is rare, so nearly all
+ * of the count are false positives at the configured probability. The filter is therefore disabled by default, see
+ * the "Re-gossip filter" property.
+ *
+ * Hashes which were seen before are detected in bounded memory. Two Bloom filter generations share the
+ * memory budget: hashes are inserted into the current one and looked up in both. Once the current generation holds
+ * as many hashes as it was sized for, it becomes the previous one and the old previous one is cleared for reuse.
+ * A duplicate is therefore detected if its original arrived within the last one to two generations.
+ *
+ * Transaction hashes are uniformly distributed, so the bit positions are derived from the hash trytes directly,
+ * without hashing or allocating.
+ * */
+public class DuplicateFilter {
+
+    // base 27 numbers of this many trytes fit into a long
+    private static final int TRYTES_PER_LONG = 13;
+
+    private final int bitsPerGeneration;
+    private final int hashFunctions;
+    private final long capacity;
+    private final double falsePositiveProbability;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private final AtomicLong inserted = new AtomicLong();
+
+    private final StripedCounter checked = new StripedCounter();
+    private final StripedCounter duplicates = new StripedCounter();
+    private final AtomicLong rotations = new AtomicLong();
+
+    /**
+     * @param memoryBudget             bytes used by both generations together
+     * @param falsePositiveProbability target probability to report a new hash as duplicate, e.g. 0.001
+     * */
+    public DuplicateFilter(final long memoryBudget, final double falsePositiveProbability) {
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("false positive probability must be between 0 and 1: " + falsePositiveProbability);
+        }
+        final long bits = Math.min(Integer.MAX_VALUE - 63L, memoryBudget * 8 / 2) & ~63L;
+        if (bits < 64) {
+            throw new IllegalArgumentException("memory budget too small: " + memoryBudget);
+        }
+        this.bitsPerGeneration = (int) bits;
+        this.falsePositiveProbability = falsePositiveProbability;
+        // the optimal Bloom filter for n elements in m bits with false positive probability p: n = -m ln(2)^2 / ln(p)
+        this.capacity = Math.max(1, (long) (-bits * Math.log(2) * Math.log(2) / Math.log(falsePositiveProbability)));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.current = new AtomicLongArray(bitsPerGeneration / 64);
+        this.previous = new AtomicLongArray(bitsPerGeneration / 64);
+    }
+
+    /**
+     * Looks up a transaction hash and remembers it.
+     * @return {@code true} if the hash was probably seen before.
+     * */
+    public boolean checkAndPut(final String hash) {
+        return checkAndPut(hash, 1);
+    }
+
+    /**
+     * Looks up a sampled transaction hash, see {@link GossipSampler}. Sampling is deterministic by hash, so the
+     * re-gossip of a sampled transaction is sampled too and the re-gossip ratio stays unbiased.
+     * @param weight number of transactions the sampled one stands for
+     * */
+    public boolean checkAndPut(final String hash, final int weight) {
+        checked.add(weight);
+        final long h1 = trytesToLong(hash, 0);
+        final long h2 = trytesToLong(hash, TRYTES_PER_LONG) | 1;
+
+        final AtomicLongArray current = this.current;
+        final AtomicLongArray previous = this.previous;
+        boolean inCurrent = true;
+        boolean inPrevious = true;
+        for (int i = 0; i < hashFunctions; i++) {
+            // double hashing: the i-th bit position is h1 + i * h2
+            final long combined = (h1 + i * h2) & Long.MAX_VALUE;
+            final int bit = (int) (combined % bitsPerGeneration);
+            final int word = bit >>> 6;
+            final long mask = 1L << (bit & 63);
+            if (inPrevious && (previous.get(word) & mask) == 0) {
+                inPrevious = false;
+            }
+            long value;
+            while (((value = current.get(word)) & mask) == 0) {
+                inCurrent = false;
+                if (current.compareAndSet(word, value, value | mask)) {
+                    break;
+                }
+            }
+        }
+
+        if (inCurrent || inPrevious) {
+            duplicates.add(weight);
+            return true;
+        }
+        if (inserted.incrementAndGet() >= capacity) {
+            rotate();
+        }
+        return false;
+    }
+
+    private synchronized void rotate() {
+        if (inserted.get() < capacity) {
+            // another thread rotated already
+            return;
+        }
+        final AtomicLongArray recycled = previous;
+        for (int i = 0; i < recycled.length(); i++) {
+            recycled.set(i, 0);
+        }
+        previous = current;
+        current = recycled;
+        inserted.set(0);
+        rotations.incrementAndGet();
+    }
+
+    private static long trytesToLong(final String trytes, final int offset) {
+        long value = 0;
+        final int end = Math.min(trytes.length(), offset + TRYTES_PER_LONG);
+        for (int i = offset; i < end; i++) {
+            final char c = trytes.charAt(i);
+            value = value * 27 + (c == '9' ? 0 : c - 'A' + 1);
+        }
+        // spread the bits of short or non-random inputs
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 29);
+    }
+
+    public long getChecked() {
+        return checked.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public JSONObject toJSON() {
+        final long regossiped = getDuplicates();
+        final long checked = getChecked();
+        return new JSONObject()
+                .put("checked", checked)
+                .put("regossiped", regossiped)
+                // includes false positives, compare with false_positive_probability
+                .put("regossip_ratio", checked > 0 ? (double) regossiped / checked : 0)
+                .put("false_positive_probability", falsePositiveProbability)
+                .put("capacity_per_generation", capacity)
+                .put("hash_functions", hashFunctions)
+                .put("rotations", rotations.get());
+    }
+}
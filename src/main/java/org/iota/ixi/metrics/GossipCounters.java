@@ -0,0 +1,120 @@
+package org.iota.ixi.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counts gossip events seen by the module: all received transactions, our own transactions and a bounded
+ * per-tag breakdown. {@link #onReceive(boolean, String)} runs on the gossip path and neither locks nor allocates.
+ *
+ * Writers increment the totals before the tag counters and {@link #snapshot()} reads the tag counters before
+ * the totals, so a snapshot never reports more tagged transactions than received ones.
+ * */
+public class GossipCounters {
+
+    public static final int DEFAULT_TAG_CAPACITY = 256;
+    private static final int MAX_PROBES = 8;
+
+    private final StripedCounter received = new StripedCounter();
+    private final StripedCounter own = new StripedCounter();
+    private final StripedCounter untracked = new StripedCounter();
+
+    private final int tagMask;
+    private final AtomicReferenceArray<String> tags;
+    private final AtomicLongArray tagCounts;
+
+    public GossipCounters() {
+        this(DEFAULT_TAG_CAPACITY);
+    }
+
+    public GossipCounters(final int tagCapacity) {
+        if (tagCapacity <= 0 || Integer.bitCount(tagCapacity) != 1) {
+            throw new IllegalArgumentException("tag capacity must be a positive power of two: " + tagCapacity);
+        }
+        this.tagMask = tagCapacity - 1;
+        this.tags = new AtomicReferenceArray<>(tagCapacity);
+        this.tagCounts = new AtomicLongArray(tagCapacity);
+    }
+
+    public void onReceive(final boolean ownTransaction, final String tag) {
+        onReceive(ownTransaction, tag, 1);
+    }
+
+    /**
+     * Counts a sampled transaction, see {@link GossipSampler}.
+     * @param weight number of transactions the sampled one stands for
+     * */
+    public void onReceive(final boolean ownTransaction, final String tag, final int weight) {
+        received.add(weight);
+        if (ownTransaction) {
+            own.add(weight);
+        }
+        countTag(tag, weight);
+    }
+
+    private void countTag(final String tag, final int weight) {
+        if (tag == null) {
+            untracked.add(weight);
+            return;
+        }
+        final int hash = tag.hashCode();
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            final int slot = (hash + probe) & tagMask;
+            final String key = tags.get(slot);
+            if (key == null) {
+                if (tags.compareAndSet(slot, null, tag) || tag.equals(tags.get(slot))) {
+                    tagCounts.getAndAdd(slot, weight);
+                    return;
+                }
+            } else if (key.equals(tag)) {
+                tagCounts.getAndAdd(slot, weight);
+                return;
+            }
+        }
+        // table region is crowded, count the transaction without a tag breakdown
+        untracked.add(weight);
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getOwn() {
+        return own.sum();
+    }
+
+    public long getUntracked() {
+        return untracked.sum();
+    }
+
+    public int getTagCapacity() {
+        return tagMask + 1;
+    }
+
+    /**
+     * @return the tag counted in {@code slot}, or {@code null} if the slot is unused
+     * */
+    public String getTag(final int slot) {
+        return tags.get(slot);
+    }
+
+    public long getTagCount(final int slot) {
+        return tagCounts.get(slot);
+    }
+
+    public GossipSnapshot snapshot() {
+        final Map<String, Long> perTag = new LinkedHashMap<>();
+        for (int slot = 0; slot <= tagMask; slot++) {
+            final String tag = tags.get(slot);
+            if (tag != null) {
+                perTag.put(tag, tagCounts.get(slot));
+            }
+        }
+        final long untrackedCount = untracked.sum();
+        final long ownCount = own.sum();
+        final long receivedCount = received.sum();
+        return new GossipSnapshot(System.currentTimeMillis(), receivedCount, ownCount, untrackedCount, perTag);
+    }
+}
@@ -0,0 +1,196 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which gossip events are measured. The decision is a deterministic function of the transaction hash, so
+ * duplicates of a sampled transaction are sampled as well and every node samples the same transactions.
+ *
+ * Sample rates are powers of two. A sampled event carries the weight 2^level, adding that weight instead of 1 to
+ * the counters keeps their totals unbiased estimates of the true counts even while the rate changes. In
+ * {@link Mode#AUTO} the level follows the observed TPS so that about {@code targetTps} events per second are sampled,
+ * which keeps the measurement overhead constant regardless of network load.
+ * */
+public class GossipSampler {
+
+    public enum Mode {
+        OFF, FIXED, AUTO
+    }
+
+    public static final int MAX_LEVEL = 16;
+    // the trytes after the ones the gossip shards are selected by
+    private static final int KEY_OFFSET = 6;
+    private static final int KEY_TRYTES = 6;
+    private static final long KEY_SPACE = 387420489; // 27^6
+    private static final int TUNE_EVERY = 64;
+    private static final long MIN_TUNE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final StripedCounter observed = new StripedCounter();
+    private final StripedCounter sampled = new StripedCounter();
+    private final AtomicLong tuneTicks = new AtomicLong();
+
+    private volatile Mode mode = Mode.OFF;
+    private volatile int level = 0;
+    private volatile double fixedRate = 1;
+    private volatile double targetTps = 0;
+    private volatile boolean estimated = false;
+
+    private long lastTuneNanos = System.nanoTime();
+    private long lastObserved = 0;
+    private volatile double observedTps = 0;
+
+    public synchronized void configure(final Mode mode, final double fixedRate, final double targetTps) {
+        this.mode = mode;
+        this.fixedRate = fixedRate;
+        this.targetTps = targetTps;
+        switch (mode) {
+            case OFF:
+                setLevel(0);
+                break;
+            case FIXED:
+                setLevel(levelFor(fixedRate));
+                break;
+            case AUTO:
+                tune(System.nanoTime(), true);
+                break;
+        }
+    }
+
+    /**
+     * Counts the event as observed and decides whether it is measured.
+     * @return the weight to count the event with, 0 if it is not sampled.
+     * */
+    public int weight(final String hash) {
+        observed.increment();
+        final int level = this.level;
+        if (level == 0) {
+            return 1;
+        }
+        if (key(hash) >= KEY_SPACE >> level) {
+            return 0;
+        }
+        sampled.increment();
+        if (mode == Mode.AUTO && tuneTicks.incrementAndGet() % TUNE_EVERY == 0) {
+            // the sampled rate is bounded by the target, so is this clock read
+            tune();
+        }
+        return 1 << level;
+    }
+
+    /**
+     * Re-evaluates the level in {@link Mode#AUTO}. Called by the sampler itself and periodically by the module,
+     * so that the rate also recovers when too few events are sampled to trigger a tuning.
+     * */
+    public void tune() {
+        if (mode == Mode.AUTO) {
+            tune(System.nanoTime(), false);
+        }
+    }
+
+    private synchronized void tune(final long now, final boolean force) {
+        final long elapsed = now - lastTuneNanos;
+        if (!force && elapsed < MIN_TUNE_INTERVAL) {
+            return;
+        }
+        final long observedNow = observed.sum();
+        if (elapsed > 0) {
+            observedTps = (observedNow - lastObserved) * 1e9 / elapsed;
+        }
+        lastTuneNanos = now;
+        lastObserved = observedNow;
+        if (mode == Mode.AUTO) {
+            setLevel(targetTps > 0 ? levelFor(targetTps / observedTps) : 0);
+        }
+    }
+
+    private void setLevel(final int level) {
+        if (level > 0) {
+            estimated = true;
+        }
+        this.level = level;
+    }
+
+    /**
+     * @return the level whose rate 2^-level is closest to, but not below {@code rate}
+     * */
+    static int levelFor(final double rate) {
+        if (!(rate < 1)) {
+            return 0;
+        }
+        if (rate <= 0) {
+            return MAX_LEVEL;
+        }
+        return Math.min(MAX_LEVEL, (int) Math.floor(-Math.log(rate) / Math.log(2)));
+    }
+
+    static long key(final String hash) {
+        if (hash == null || hash.length() < KEY_OFFSET + KEY_TRYTES) {
+            return 0;
+        }
+        long key = 0;
+        for (int i = KEY_OFFSET; i < KEY_OFFSET + KEY_TRYTES; i++) {
+            final char tryte = hash.charAt(i);
+            key = key * 27 + (tryte == '9' ? 0 : ((tryte - 'A' + 1) & 31) % 27);
+        }
+        return key;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public double getRate() {
+        return 1.0 / (1 << level);
+    }
+
+    /**
+     * @return the rate configured for {@link Mode#FIXED}, before rounding to a power of two
+     * */
+    public double getFixedRate() {
+        return fixedRate;
+    }
+
+    /**
+     * @return the sampled events per second {@link Mode#AUTO} aims for
+     * */
+    public double getTargetTps() {
+        return targetTps;
+    }
+
+    /**
+     * @return {@code true} once any event was counted with a weight above 1, from then on counters are estimates.
+     * */
+    public boolean isEstimated() {
+        return estimated;
+    }
+
+    /**
+     * @return the exact number of events seen, sampled or not
+     * */
+    public long getObserved() {
+        return observed.sum();
+    }
+
+    public long getSampled() {
+        return sampled.sum();
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("mode", mode.name())
+                .put("rate", getRate())
+                .put("level", level)
+                .put("target_tps", targetTps)
+                .put("observed_tps", observedTps)
+                .put("observed", getObserved())
+                .put("sampled", getSampled())
+                .put("estimated", estimated);
+    }
+}
@@ -0,0 +1,71 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable point-in-time view of {@link GossipCounters}.
+ * */
+public class GossipSnapshot {
+
+    private final long timestamp;
+    private final long received;
+    private final long own;
+    private final long untracked;
+    private final Map<String, Long> perTag;
+
+    GossipSnapshot(final long timestamp, final long received, final long own, final long untracked, final Map<String, Long> perTag) {
+        this.timestamp = timestamp;
+        this.received = received;
+        this.own = own;
+        this.untracked = untracked;
+        this.perTag = Collections.unmodifiableMap(perTag);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getOwn() {
+        return own;
+    }
+
+    public long getUntracked() {
+        return untracked;
+    }
+
+    public Map<String, Long> getPerTag() {
+        return perTag;
+    }
+
+    public long getTagCount(final String tag) {
+        final Long count = perTag.get(tag);
+        return count != null ? count : 0;
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("timestamp", timestamp)
+                .put("received", received)
+                .put("own", own)
+                .put("untracked", untracked)
+                .put("tags", new JSONObject(perTag));
+    }
+
+    @Override
+    public String toString() {
+        return "GossipSnapshot{" +
+                "timestamp=" + timestamp +
+                ", received=" + received +
+                ", own=" + own +
+                ", untracked=" + untracked +
+                ", perTag=" + perTag +
+                '}';
+    }
+}
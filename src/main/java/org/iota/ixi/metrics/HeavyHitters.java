@@ -0,0 +1,252 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Finds the most frequent keys, e.g. addresses or tags, of a stream in fixed memory.
+ *
+ * Frequencies are estimated by a Count-Min sketch, which never under-counts and over-counts by at most
+ * {@code e / width} of the window's total with high probability. Candidates for the top K live in a direct-mapped
+ * table: a key takes over its slot if its estimate exceeds the one of the key holding it, so frequent keys displace
+ * rare ones. {@link #add(String, int)} costs a constant number of atomic operations and never allocates.
+ *
+ * Counting happens in windows. {@link #publish()} closes the current window, publishes the top K of it and starts
+ * the next one in the spare sketch.
+ * */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final Comparator<Entry> BY_COUNT_DESCENDING = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry a, final Entry b) {
+            return Long.compare(b.count, a.count);
+        }
+    };
+
+    private final int widthMask;
+    private final int candidateMask;
+    private volatile Window current;
+    private Window spare;
+    private volatile int k;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param width      counters per row of the sketch, a power of two
+     * @param candidates slots of the candidate table, a power of two and at least {@code k}
+     * */
+    public HeavyHitters(final int width, final int candidates, final int k) {
+        if (Integer.bitCount(width) != 1 || Integer.bitCount(candidates) != 1) {
+            throw new IllegalArgumentException("width and candidates must be powers of two");
+        }
+        this.widthMask = width - 1;
+        this.candidateMask = candidates - 1;
+        this.current = new Window(width, candidates);
+        this.spare = new Window(width, candidates);
+        this.snapshot = new Snapshot(System.currentTimeMillis(), System.currentTimeMillis(), 0, 0, Collections.<Entry>emptyList());
+        setK(k);
+    }
+
+    public void setK(final int k) {
+        if (k < 1 || k > candidateMask + 1) {
+            throw new IllegalArgumentException("k must be between 1 and " + (candidateMask + 1) + ": " + k);
+        }
+        this.k = k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @param weight number of occurrences, see {@link GossipSampler}
+     * */
+    public void add(final String key, final int weight) {
+        if (key == null) {
+            return;
+        }
+        final Window window = current;
+        window.total.addAndGet(weight);
+        final long hash = hash(key);
+        final long estimate = window.increment(hash, weight);
+
+        final int slot = (int) (hash >>> 40) & candidateMask;
+        final String holder = window.candidates.get(slot);
+        if (holder == null) {
+            window.candidates.compareAndSet(slot, null, key);
+        } else if (!holder.equals(key) && window.estimate(hash(holder)) < estimate) {
+            window.candidates.compareAndSet(slot, holder, key);
+        }
+    }
+
+    /**
+     * Closes the current window and publishes its top K. Called periodically by a single thread.
+     * */
+    public synchronized Snapshot publish() {
+        final Window closed = current;
+        spare.clear();
+        current = spare;
+        spare = closed;
+
+        final long now = System.currentTimeMillis();
+        final List<Entry> entries = new ArrayList<>();
+        for (int slot = 0; slot <= candidateMask; slot++) {
+            final String key = closed.candidates.get(slot);
+            if (key != null) {
+                entries.add(new Entry(key, closed.estimate(hash(key))));
+            }
+        }
+        Collections.sort(entries, BY_COUNT_DESCENDING);
+        final long total = closed.total.get();
+        final long errorBound = (long) Math.ceil(Math.E / (widthMask + 1) * total);
+        snapshot = new Snapshot(closed.start, now, total, errorBound, entries.subList(0, Math.min(k, entries.size())));
+        current.start = now;
+        return snapshot;
+    }
+
+    /**
+     * @return the top K of the last closed window
+     * */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private static long hash(final String key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return h ^ (h >>> 29);
+    }
+
+    private class Window {
+
+        private final AtomicLongArray counts;
+        private final AtomicReferenceArray<String> candidates;
+        private final AtomicLong total = new AtomicLong();
+        private volatile long start = System.currentTimeMillis();
+
+        private Window(final int width, final int candidates) {
+            this.counts = new AtomicLongArray(DEPTH * width);
+            this.candidates = new AtomicReferenceArray<>(candidates);
+        }
+
+        private long increment(final long hash, final int weight) {
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counts.addAndGet(index(hash, row), weight));
+            }
+            return min;
+        }
+
+        private long estimate(final long hash) {
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counts.get(index(hash, row)));
+            }
+            return min;
+        }
+
+        private int index(final long hash, final int row) {
+            // double hashing, the odd step keeps the rows independent enough for a sketch
+            final int h1 = (int) hash;
+            final int h2 = (int) (hash >>> 32) | 1;
+            return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+        }
+
+        private void clear() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            for (int i = 0; i < candidates.length(); i++) {
+                candidates.set(i, null);
+            }
+            total.set(0);
+        }
+    }
+
+    public static class Entry {
+
+        private final String key;
+        private final long count;
+
+        private Entry(final String key, final long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the estimated number of occurrences, never below the true one
+         * */
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The top K keys of a closed window, most frequent first.
+     * */
+    public static class Snapshot {
+
+        private final long start;
+        private final long end;
+        private final long total;
+        private final long errorBound;
+        private final List<Entry> entries;
+
+        private Snapshot(final long start, final long end, final long total, final long errorBound, final List<Entry> entries) {
+            this.start = start;
+            this.end = end;
+            this.total = total;
+            this.errorBound = errorBound;
+            this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return how much each count may exceed the true one, with a probability of about 98%
+         * */
+        public long getErrorBound() {
+            return errorBound;
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        public JSONObject toJSON() {
+            final JSONArray top = new JSONArray();
+            for (Entry entry : entries) {
+                top.put(new JSONObject().put("key", entry.key).put("count", entry.count));
+            }
+            return new JSONObject()
+                    .put("start", start)
+                    .put("end", end)
+                    .put("total", total)
+                    .put("error_bound", errorBound)
+                    .put("top", top);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable summary of a {@link LatencyHistogram}. Values are in the unit they were recorded in.
+ * */
+public class HistogramSnapshot {
+
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long clamped;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+
+    HistogramSnapshot(final long count, final long sum, final long max, final long clamped, final long p50, final long p99, final long p999) {
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.clamped = clamped;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getClamped() {
+        return clamped;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    /**
+     * @param unit the unit the histogram values were recorded in, the JSON values are in milliseconds
+     * */
+    public JSONObject toJSON(final TimeUnit unit) {
+        final double toMillis = unit.toNanos(1) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        return new JSONObject()
+                .put("count", count)
+                .put("clamped", clamped)
+                .put("mean_ms", getMean() * toMillis)
+                .put("p50_ms", p50 * toMillis)
+                .put("p99_ms", p99 * toMillis)
+                .put("p999_ms", p999 * toMillis)
+                .put("max_ms", max * toMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count +
+                ", p50=" + p50 +
+                ", p99=" + p99 +
+                ", p999=" + p999 +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package org.iota.ixi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-memory, log-linear histogram in the spirit of HdrHistogram. Every power of two is split into 64
+ * linear sub-buckets, which keeps the relative error of recorded values below 1.6%. Values above
+ * {@link #getHighestTrackableValue()} are clamped. Recording is lock-free and does not allocate.
+ * */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_HALF_BITS;
+
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+    private final AtomicLong clamped = new AtomicLong();
+
+    /**
+     * @param highestTrackableValue largest value recorded without clamping, e.g. {@code TimeUnit.MINUTES.toNanos(10)}
+     * */
+    public LatencyHistogram(final long highestTrackableValue) {
+        if (highestTrackableValue < SUB_BUCKET_COUNT) {
+            throw new IllegalArgumentException("highest trackable value must be at least " + SUB_BUCKET_COUNT);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        if (value > highestTrackableValue) {
+            value = highestTrackableValue;
+            clamped.incrementAndGet();
+        }
+        counts.getAndIncrement(indexOf(value));
+        totalSum.addAndGet(value);
+        totalCount.incrementAndGet();
+        long max;
+        while (value > (max = maxValue.get()) && !maxValue.compareAndSet(max, value)) {
+            // retry until our value is published or a larger one won
+        }
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    public HistogramSnapshot snapshot() {
+        final long[] copy = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        final long max = maxValue.get();
+        // bucket upper bounds may overshoot the largest value actually recorded
+        return new HistogramSnapshot(
+                count,
+                totalSum.get(),
+                max,
+                clamped.get(),
+                Math.min(max, valueAtPercentile(copy, count, 50.0)),
+                Math.min(max, valueAtPercentile(copy, count, 99.0)),
+                Math.min(max, valueAtPercentile(copy, count, 99.9))
+        );
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getSum() {
+        return totalSum.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Reads a percentile straight from the live counters, without the copy taken by {@link #snapshot()}.
+     * Values recorded concurrently may or may not be seen.
+     * */
+    public long getValueAtPercentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(maxValue.get(), highestEquivalentValue(i));
+            }
+        }
+        return maxValue.get();
+    }
+
+    private static long valueAtPercentile(final long[] counts, final long total, final double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(counts.length - 1);
+    }
+
+    static int indexOf(final long value) {
+        final int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS);
+        return (bucket << SUB_BUCKET_HALF_BITS) + (int) (value >>> bucket);
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int bucket = (index >>> SUB_BUCKET_HALF_BITS) - 1;
+        final long lowest = (long) (index - (bucket << SUB_BUCKET_HALF_BITS)) << bucket;
+        return lowest + (1L << bucket) - 1;
+    }
+}
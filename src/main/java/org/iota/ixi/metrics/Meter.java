@@ -0,0 +1,106 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+/**
+ * Measures the rate of events as 1, 5 and 15 minute exponentially weighted moving averages, like the Unix load
+ * average, and exactly over a sliding window of the last minute.
+ *
+ * {@link #mark(long)} only adds to a {@link StripedCounter}: it is lock-free and does not read the clock. The rates
+ * are advanced by {@link #tick()}, which should be called every {@link #TICK_SECONDS} seconds by a single thread.
+ * Each tick divides by the time which actually passed since the previous one, so a late tick does not inflate the
+ * rates and the tick catching up after it does not deflate them.
+ * */
+public class Meter {
+
+    public static final int TICK_SECONDS = 5;
+    // 12 buckets of 5 seconds make up the sliding window of one minute
+    private static final int WINDOW_BUCKETS = 12;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final StripedCounter count = new StripedCounter();
+    private final long[] buckets = new long[WINDOW_BUCKETS];
+    private final long[] bucketNanos = new long[WINDOW_BUCKETS];
+    private int nextBucket = 0;
+    private long windowSum = 0;
+    private long windowNanos = 0;
+    private long lastTick = System.nanoTime();
+    private long lastCount = 0;
+    private boolean initialized = false;
+
+    private volatile double m1Rate = 0;
+    private volatile double m5Rate = 0;
+    private volatile double m15Rate = 0;
+    private volatile double windowRate = 0;
+
+    public void mark() {
+        count.increment();
+    }
+
+    public void mark(final long events) {
+        count.add(events);
+    }
+
+    public synchronized void tick() {
+        final long now = System.nanoTime();
+        final long elapsed = now - lastTick;
+        if (elapsed <= 0) {
+            return;
+        }
+        lastTick = now;
+        final long current = count.sum();
+        final long delta = current - lastCount;
+        lastCount = current;
+
+        final double seconds = elapsed / NANOS_PER_SECOND;
+        final double instantRate = delta / seconds;
+        if (initialized) {
+            // the weight of a tick grows with the time it covers
+            m1Rate += (1 - Math.exp(-seconds / 60)) * (instantRate - m1Rate);
+            m5Rate += (1 - Math.exp(-seconds / 60 / 5)) * (instantRate - m5Rate);
+            m15Rate += (1 - Math.exp(-seconds / 60 / 15)) * (instantRate - m15Rate);
+        } else {
+            m1Rate = m5Rate = m15Rate = instantRate;
+            initialized = true;
+        }
+
+        windowSum += delta - buckets[nextBucket];
+        windowNanos += elapsed - bucketNanos[nextBucket];
+        buckets[nextBucket] = delta;
+        bucketNanos[nextBucket] = elapsed;
+        nextBucket = (nextBucket + 1) % WINDOW_BUCKETS;
+        windowRate = windowSum / (windowNanos / NANOS_PER_SECOND);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getOneMinuteRate() {
+        return m1Rate;
+    }
+
+    public double getFiveMinuteRate() {
+        return m5Rate;
+    }
+
+    public double getFifteenMinuteRate() {
+        return m15Rate;
+    }
+
+    /**
+     * @return events per second over the last minute, or over the time since the first tick if that is shorter
+     * */
+    public double getWindowRate() {
+        return windowRate;
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("count", getCount())
+                .put("m1_tps", m1Rate)
+                .put("m5_tps", m5Rate)
+                .put("m15_tps", m15Rate)
+                .put("window_tps", windowRate);
+    }
+}
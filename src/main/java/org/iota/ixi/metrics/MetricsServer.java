@@ -0,0 +1,156 @@
+package org.iota.ixi.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.iota.ixi.utils.NamedThreadFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A minimal HTTP endpoint which serves the metrics of a {@link Source} in the OpenMetrics text format on every path.
+ *
+ * Scrapes are handled one after another on a single thread. The request, header and metric buffers are reused,
+ * so apart from the connection objects created by the JDK a scrape does not allocate. Every response closes the
+ * connection, and slow clients are dropped after {@link #IO_TIMEOUT} milliseconds.
+ * */
+public class MetricsServer {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/MetricsServer");
+
+    private static final long IO_TIMEOUT = 5000;
+    private static final byte[] HEADER_PREFIX = ("HTTP/1.1 200 OK\r\n" +
+            "Content-Type: application/openmetrics-text; version=1.0.0; charset=utf-8\r\n" +
+            "Connection: close\r\n" +
+            "Content-Length: ").getBytes();
+    private static final byte[] HEADER_SUFFIX = "\r\n\r\n".getBytes();
+
+    /**
+     * Writes the metrics to expose.
+     * */
+    public interface Source {
+        void writeMetrics(OpenMetricsWriter writer);
+    }
+
+    private final Source source;
+    private final String bindAddress;
+    private final int port;
+    private final OpenMetricsWriter metrics = new OpenMetricsWriter(16 * 1024);
+    private final OpenMetricsWriter header = new OpenMetricsWriter(256);
+    private final ByteBuffer request = ByteBuffer.allocate(4096);
+    private final ByteBuffer[] response = new ByteBuffer[2];
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Thread thread;
+
+    /**
+     * @param bindAddress the interface to listen on, e.g. {@code 127.0.0.1} to serve local scrapers only
+     * */
+    public MetricsServer(final Source source, final String bindAddress, final int port) {
+        this.source = source;
+        this.bindAddress = bindAddress;
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        server = ServerSocketChannel.open();
+        server.socket().setReuseAddress(true);
+        server.bind(new InetSocketAddress(bindAddress, port));
+        selector = Selector.open();
+        thread = new NamedThreadFactory("MeasureIxi-metrics").newThread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        });
+        thread.start();
+        log.info("Serving OpenMetrics on {}:{}", bindAddress, port);
+    }
+
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        thread = null;
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException e) {
+            log.error("Failed to close metrics endpoint: {}", e.toString());
+        }
+    }
+
+    private void serve() {
+        while (server.isOpen()) {
+            try (SocketChannel client = server.accept()) {
+                client.configureBlocking(false);
+                handle(client);
+            } catch (IOException e) {
+                if (server.isOpen()) {
+                    log.debug("Metrics scrape failed: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private void handle(final SocketChannel client) throws IOException {
+        final SelectionKey key = client.register(selector, SelectionKey.OP_READ);
+        try {
+            request.clear();
+            while (!requestComplete()) {
+                if (!request.hasRemaining() || selector.select(IO_TIMEOUT) == 0) {
+                    return;
+                }
+                selector.selectedKeys().clear();
+                if (client.read(request) < 0) {
+                    return;
+                }
+            }
+
+            metrics.reset();
+            source.writeMetrics(metrics);
+            metrics.end();
+            header.reset();
+            for (byte b : HEADER_PREFIX) {
+                header.ascii((char) b);
+            }
+            header.number((long) metrics.length());
+            for (byte b : HEADER_SUFFIX) {
+                header.ascii((char) b);
+            }
+            response[0] = header.toByteBuffer();
+            response[1] = metrics.toByteBuffer();
+
+            key.interestOps(SelectionKey.OP_WRITE);
+            while (response[1].hasRemaining()) {
+                client.write(response);
+                if (response[1].hasRemaining()) {
+                    if (selector.select(IO_TIMEOUT) == 0) {
+                        return;
+                    }
+                    selector.selectedKeys().clear();
+                }
+            }
+        } finally {
+            key.cancel();
+            // deregister the cancelled key before the next connection is registered
+            selector.selectNow();
+        }
+    }
+
+    private boolean requestComplete() {
+        // the request is complete with the empty line after its headers, a body is never expected
+        final int end = request.position();
+        return end >= 4 && request.get(end - 4) == '\r' && request.get(end - 3) == '\n'
+                && request.get(end - 2) == '\r' && request.get(end - 1) == '\n';
+    }
+}
@@ -0,0 +1,185 @@
+package org.iota.ixi.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders metrics in the OpenMetrics text format into a byte buffer which is reused from scrape to scrape.
+ * Names, labels and numbers are encoded byte by byte, so rendering does not allocate once the buffer is large enough.
+ * Names and label values are expected to be ASCII.
+ * */
+public class OpenMetricsWriter {
+
+    private static final int FRACTION_DIGITS = 6;
+    private static final long FRACTION_SCALE = 1000000;
+
+    private byte[] buffer;
+    private int length = 0;
+    private final byte[] digits = new byte[20];
+
+    public OpenMetricsWriter(final int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return a view of the rendered bytes, valid until the next {@link #reset()}.
+     * */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    /**
+     * Writes the {@code # TYPE} and {@code # HELP} lines of a metric family.
+     * @param type counter, gauge or summary
+     * */
+    public OpenMetricsWriter family(final String name, final String type, final String help) {
+        ascii("# TYPE ").ascii(name).ascii(' ').ascii(type).ascii('\n');
+        ascii("# HELP ").ascii(name).ascii(' ').ascii(help).ascii('\n');
+        return this;
+    }
+
+    public OpenMetricsWriter sample(final String name, final long value) {
+        return ascii(name).ascii(' ').number(value).ascii('\n');
+    }
+
+    public OpenMetricsWriter sample(final String name, final double value) {
+        return ascii(name).ascii(' ').number(value).ascii('\n');
+    }
+
+    public OpenMetricsWriter sample(final String name, final String label, final String labelValue, final long value) {
+        return ascii(name).label(label, labelValue).ascii(' ').number(value).ascii('\n');
+    }
+
+    public OpenMetricsWriter sample(final String name, final String label, final String labelValue, final double value) {
+        return ascii(name).label(label, labelValue).ascii(' ').number(value).ascii('\n');
+    }
+
+    /**
+     * Writes the quantile, sum and count samples of a summary in seconds.
+     * @param unit unit of the values recorded in {@code histogram}
+     * */
+    public OpenMetricsWriter summaryInSeconds(final String name, final LatencyHistogram histogram, final TimeUnit unit) {
+        final double seconds = unit.toNanos(1) / 1e9;
+        quantile(name, "0.5", histogram.getValueAtPercentile(50.0) * seconds);
+        quantile(name, "0.99", histogram.getValueAtPercentile(99.0) * seconds);
+        quantile(name, "0.999", histogram.getValueAtPercentile(99.9) * seconds);
+        ascii(name).ascii("_sum ").number(histogram.getSum() * seconds).ascii('\n');
+        ascii(name).ascii("_count ").number(histogram.getCount()).ascii('\n');
+        return this;
+    }
+
+    private void quantile(final String name, final String quantile, final double seconds) {
+        ascii(name).label("quantile", quantile).ascii(' ').number(seconds).ascii('\n');
+    }
+
+    public OpenMetricsWriter end() {
+        return ascii("# EOF\n");
+    }
+
+    private OpenMetricsWriter label(final String label, final String value) {
+        ascii('{').ascii(label).ascii("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                ascii('\\').ascii(c);
+            } else if (c == '\n') {
+                ascii("\\n");
+            } else {
+                ascii(c < 128 ? c : '?');
+            }
+        }
+        return ascii("\"}");
+    }
+
+    public OpenMetricsWriter ascii(final String text) {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    public OpenMetricsWriter ascii(final char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+        return this;
+    }
+
+    public OpenMetricsWriter number(long value) {
+        if (value == Long.MIN_VALUE) {
+            return ascii("-9223372036854775808");
+        }
+        if (value < 0) {
+            ascii('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensureCapacity(count);
+        while (count > 0) {
+            buffer[length++] = digits[--count];
+        }
+        return this;
+    }
+
+    /**
+     * Writes a double with up to six fraction digits, or in integral form if it is too large for that.
+     * */
+    public OpenMetricsWriter number(double value) {
+        if (Double.isNaN(value)) {
+            return ascii("NaN");
+        }
+        if (Double.isInfinite(value)) {
+            return ascii(value > 0 ? "+Inf" : "-Inf");
+        }
+        if (value < 0) {
+            ascii('-');
+            value = -value;
+        }
+        if (value >= Long.MAX_VALUE / FRACTION_SCALE) {
+            return number((long) value);
+        }
+        final long scaled = Math.round(value * FRACTION_SCALE);
+        number(scaled / FRACTION_SCALE);
+        long fraction = scaled % FRACTION_SCALE;
+        if (fraction == 0) {
+            return this;
+        }
+        ascii('.');
+        int digitCount = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digitCount--;
+        }
+        for (long divisor = pow10(digitCount - 1); divisor > 0; divisor /= 10) {
+            ascii((char) ('0' + (fraction / divisor) % 10));
+        }
+        return this;
+    }
+
+    private static long pow10(final int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    private void ensureCapacity(final int additional) {
+        if (length + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.iota.ixi.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free counter which spreads concurrent increments over several cache-line padded cells.
+ * Writers never allocate and never block, readers sum up all cells.
+ * */
+public class StripedCounter {
+
+    // 8 longs = 64 bytes, one cell per cache line
+    private static final int PADDING = 8;
+    private static final int STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(final long delta) {
+        cells.getAndAdd(cellIndex(), delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private static int cellIndex() {
+        final long id = Thread.currentThread().getId();
+        final int hash = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+    }
+
+    private static int stripesFor(final int processors) {
+        int stripes = 1;
+        while (stripes < processors * 2) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
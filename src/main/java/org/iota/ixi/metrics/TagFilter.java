@@ -0,0 +1,45 @@
+package org.iota.ixi.metrics;
+
+import org.json.JSONObject;
+
+/**
+ * Pre-filters gossip by tag before the more expensive measurement pipeline runs. Hits and misses are counted.
+ * */
+public class TagFilter {
+
+    private final String pattern;
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+
+    public TagFilter(final String pattern) {
+        this.pattern = pattern;
+    }
+
+    public boolean matches(final String tag) {
+        if (pattern.equals(tag)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("tag", pattern)
+                .put("hits", getHits())
+                .put("misses", getMisses());
+    }
+}
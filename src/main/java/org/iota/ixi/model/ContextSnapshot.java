@@ -0,0 +1,56 @@
+package org.iota.ixi.model;
+
+import org.json.JSONArray;
+
+/**
+ * The neighbor configuration as last published by the background sync. Instances are immutable and replaced
+ * as a whole, so readers never wait for a sync in progress.
+ * */
+public class ContextSnapshot {
+
+    public static final ContextSnapshot EMPTY = new ContextSnapshot(new JSONArray().toString(), 0);
+
+    private final String neighbors;
+    private final long syncedAt;
+
+    public ContextSnapshot(final String neighbors, final long syncedAt) {
+        this.neighbors = neighbors;
+        this.syncedAt = syncedAt;
+    }
+
+    /**
+     * @return the neighbors as serialized JSON array of {@code {"_address": ..., "publicAddress": ...}} objects.
+     * */
+    public String getNeighbors() {
+        return neighbors;
+    }
+
+    /**
+     * @return time of the last successful neighbor sync with Ict, 0 if there was none yet.
+     * */
+    public long getSyncedAt() {
+        return syncedAt;
+    }
+
+    /**
+     * @return milliseconds since the last successful neighbor sync, -1 if there was none yet.
+     * */
+    public long getAge(final long now) {
+        return syncedAt > 0 ? now - syncedAt : -1;
+    }
+
+    public boolean isStale(final long now, final long maxAge) {
+        return syncedAt == 0 || now - syncedAt > maxAge;
+    }
+
+    public ContextSnapshot withNeighbors(final String neighbors) {
+        return new ContextSnapshot(neighbors, syncedAt);
+    }
+
+    /**
+     * @return this snapshot confirmed by a sync which found the neighbors unchanged
+     * */
+    public ContextSnapshot withSyncedAt(final long syncedAt) {
+        return new ContextSnapshot(neighbors, syncedAt);
+    }
+}
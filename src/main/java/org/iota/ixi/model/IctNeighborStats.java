@@ -0,0 +1,98 @@
+package org.iota.ixi.model;
+
+/**
+ * The newest stats records of one Ict neighbor as returned by the Ict REST API route /getNeighbors.
+ * Only the tail of the stats history is kept, in struct-of-arrays layout with the newest record at {@code fromEnd(0)}.
+ * */
+public class IctNeighborStats {
+
+    private String address;
+    private final int capacity;
+    private long records = 0;
+
+    final long[] timestamp;
+    final long[] all;
+    final long[] newTx;
+    final long[] ignored;
+    final long[] invalid;
+    final long[] requested;
+
+    public IctNeighborStats(final String address, final int capacity) {
+        this.address = address;
+        this.capacity = capacity;
+        this.timestamp = new long[capacity];
+        this.all = new long[capacity];
+        this.newTx = new long[capacity];
+        this.ignored = new long[capacity];
+        this.invalid = new long[capacity];
+        this.requested = new long[capacity];
+    }
+
+    public void append(final long timestamp, final long all, final long newTx, final long ignored, final long invalid, final long requested) {
+        final int i = (int) (records % capacity);
+        this.timestamp[i] = timestamp;
+        this.all[i] = all;
+        this.newTx[i] = newTx;
+        this.ignored[i] = ignored;
+        this.invalid[i] = invalid;
+        this.requested[i] = requested;
+        records++;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    /**
+     * @return number of records in the whole stats history, including the ones which were not kept.
+     * */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return number of records kept, at most the capacity.
+     * */
+    public int size() {
+        return (int) Math.min(records, capacity);
+    }
+
+    /**
+     * @param back 0 for the newest record, 1 for the one before, ...
+     * @return the array index of that record or -1 if it was not kept.
+     * */
+    public int fromEnd(final int back) {
+        if (back < 0 || back >= size()) {
+            return -1;
+        }
+        return (int) ((records - 1 - back) % capacity);
+    }
+
+    public long getTimestamp(final int index) {
+        return timestamp[index];
+    }
+
+    public long getAll(final int index) {
+        return all[index];
+    }
+
+    public long getNew(final int index) {
+        return newTx[index];
+    }
+
+    public long getIgnored(final int index) {
+        return ignored[index];
+    }
+
+    public long getInvalid(final int index) {
+        return invalid[index];
+    }
+
+    public long getRequested(final int index) {
+        return requested[index];
+    }
+}
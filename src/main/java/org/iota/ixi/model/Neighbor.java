@@ -2,12 +2,26 @@ package org.iota.ixi.model;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.iota.ixi.utils.UuidGenerator;
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
 
 public class Neighbor {
 
-    private static final Logger log = LogManager.getLogger("ReportIxi/Neighbor");
+    private static final Logger log = LogManager.getLogger("MeasureIxi/Neighbor");
+
+    // one hour of samples with the default Ict round duration of 60 seconds
+    public static final int HISTORY_CAPACITY = 61;
+    // samples the rates and ratios in toJSON() are averaged over
+    private static final int RATE_WINDOW = 10;
+    // periods of the moving averages of all transactions, covered by whole rounds
+    private static final long M1_PERIOD = TimeUnit.MINUTES.toMillis(1);
+    private static final long M15_PERIOD = TimeUnit.MINUTES.toMillis(15);
 
     private String uuid = null;
+    // the address the uuid was derived from, null if it has to be derived (again)
+    private String uuidSource = null;
     private String address;
     private String publicAddress = "";
     private Long timestamp = null;
@@ -16,6 +30,8 @@ public class Neighbor {
     private Integer ignoredTx = null;
     private Integer invalidTx = null;
     private Integer requestedTx = null;
+    private final NeighborHistory history = new NeighborHistory(HISTORY_CAPACITY);
+    private final NeighborRates rates = new NeighborRates();
 
     public Neighbor(final String address) {
         this.address = address;
@@ -42,9 +58,25 @@ public class Neighbor {
     }
 
     public void setPublicAddress(String publicAddress) {
+        if (!publicAddress.equals(this.publicAddress)) {
+            uuidSource = null;
+        }
         this.publicAddress = publicAddress;
     }
 
+    /**
+     * Derives the uuid from {@code source} unless it was derived from the same address before.
+     * @return {@code true} if a new uuid was assigned.
+     * */
+    public boolean assignUuid(final String source) {
+        if (source.equals(uuidSource)) {
+            return false;
+        }
+        setUuid(UuidGenerator.getOrGenerate(source));
+        uuidSource = source;
+        return true;
+    }
+
     public Long getTimestamp() {
         return timestamp;
     }
@@ -93,6 +125,70 @@ public class Neighbor {
         this.requestedTx = requestedTx;
     }
 
+    public NeighborHistory getHistory() {
+        return history;
+    }
+
+    public NeighborRates getRates() {
+        return rates;
+    }
+
+    /**
+     * @return transactions per second received over the newest rounds covering a minute
+     * */
+    public double getOneMinuteRate() {
+        return history.meanRateOver(NeighborHistory.ALL, M1_PERIOD);
+    }
+
+    /**
+     * @return transactions per second received over the newest rounds covering fifteen minutes
+     * */
+    public double getFifteenMinuteRate() {
+        return history.meanRateOver(NeighborHistory.ALL, M15_PERIOD);
+    }
+
+    /**
+     * Sets the current stats and appends them to the history.
+     * @param duration length of the round the stats were counted in, in milliseconds
+     * @return {@code true} if the stats are newer than the last ones in the history.
+     * */
+    public boolean updateStats(final long timestamp, final long duration, final int allTx, final int newTx, final int ignoredTx, final int invalidTx, final int requestedTx) {
+        setTimestamp(timestamp);
+        setAllTx(allTx);
+        setNewTx(newTx);
+        setIgnoredTx(ignoredTx);
+        setInvalidTx(invalidTx);
+        setRequestedTx(requestedTx);
+        return history.append(timestamp, duration, allTx, newTx, ignoredTx, invalidTx, requestedTx);
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("uuid", uuid)
+                .put("address", address)
+                .put("publicAddress", publicAddress)
+                .put("timestamp", timestamp)
+                .put("all", allTx)
+                .put("new", newTx)
+                .put("ignored", ignoredTx)
+                .put("invalid", invalidTx)
+                .put("requested", requestedTx)
+                .put("rates", rates.toJSON())
+                .put("history", new JSONObject()
+                        .put("samples", history.size())
+                        .put("m1_tps", getOneMinuteRate())
+                        .put("m15_tps", getFifteenMinuteRate())
+                        .put("all_tps", history.meanRate(NeighborHistory.ALL, RATE_WINDOW))
+                        .put("new_tps", history.meanRate(NeighborHistory.NEW, RATE_WINDOW))
+                        .put("ignored_tps", history.meanRate(NeighborHistory.IGNORED, RATE_WINDOW))
+                        .put("invalid_tps", history.meanRate(NeighborHistory.INVALID, RATE_WINDOW))
+                        .put("requested_tps", history.meanRate(NeighborHistory.REQUESTED, RATE_WINDOW))
+                        .put("invalid_ratio", history.ratio(NeighborHistory.INVALID, NeighborHistory.ALL, RATE_WINDOW))
+                        // Ict ignores transactions it already knows, so this is the share of duplicates the neighbor sent
+                        .put("duplicate_ratio", history.ratio(NeighborHistory.IGNORED, NeighborHistory.ALL, RATE_WINDOW))
+                        .put("new_ratio", history.ratio(NeighborHistory.NEW, NeighborHistory.ALL, RATE_WINDOW)));
+    }
+
     @Override
     public String toString() {
         return "Neighbor{" +
@@ -0,0 +1,163 @@
+package org.iota.ixi.model;
+
+/**
+ * A fixed-capacity ring buffer of the stats samples Ict reported for one neighbor, stored as primitive arrays per field.
+ * Each sample holds the transactions counted by Ict during one round together with the length of that round, so a
+ * rate is the sample value divided by its own round length, see {@link NeighborRates}. Samples missed between two
+ * syncs therefore do not dilute the rates. Reading never allocates.
+ *
+ * There must be a single writer. Readers only look at the newest {@code capacity - 1} samples, so a concurrent
+ * {@link #append} can not overwrite a sample while it is read.
+ * */
+public class NeighborHistory {
+
+    public static final int ALL = 0;
+    public static final int NEW = 1;
+    public static final int IGNORED = 2;
+    public static final int INVALID = 3;
+    public static final int REQUESTED = 4;
+    private static final int FIELDS = 5;
+
+    private final int capacity;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final long[][] values;
+    private volatile long count = 0;
+
+    public NeighborHistory(final int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.durations = new long[capacity];
+        this.values = new long[FIELDS][capacity];
+    }
+
+    /**
+     * Appends a sample unless it is not newer than the last one, which happens when Ict is synced more than once a round.
+     * @param duration length of the sampled round in milliseconds
+     * @return {@code true} if the sample was appended.
+     * */
+    public boolean append(final long timestamp, final long duration, final long all, final long newTx, final long ignored, final long invalid, final long requested) {
+        final long n = count;
+        if (n > 0 && timestamp <= timestamps[slot(n - 1)]) {
+            return false;
+        }
+        final int slot = slot(n);
+        timestamps[slot] = timestamp;
+        durations[slot] = duration;
+        values[ALL][slot] = all;
+        values[NEW][slot] = newTx;
+        values[IGNORED][slot] = ignored;
+        values[INVALID][slot] = invalid;
+        values[REQUESTED][slot] = requested;
+        count = n + 1;
+        return true;
+    }
+
+    /**
+     * @return number of samples which can be read.
+     * */
+    public int size() {
+        return (int) Math.min(count, capacity - 1);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param back 0 for the newest sample, 1 for the one before, ...
+     * */
+    public long getTimestamp(final int back) {
+        return timestamps[slotFromEnd(back)];
+    }
+
+    /**
+     * @return length of the round of the sample {@code back} samples before the newest one, in milliseconds
+     * */
+    public long getDuration(final int back) {
+        return durations[slotFromEnd(back)];
+    }
+
+    public long get(final int field, final int back) {
+        return values[field][slotFromEnd(back)];
+    }
+
+    /**
+     * @return transactions per second of {@code field} in the sample {@code back} samples before the newest one.
+     * */
+    public double rate(final int field, final int back) {
+        final long duration = getDuration(back);
+        return duration > 0 ? get(field, back) * 1000.0 / duration : 0;
+    }
+
+    /**
+     * @return sum of {@code field} over the newest {@code window} samples.
+     * */
+    public long sum(final int field, final int window) {
+        final int n = Math.min(window, size());
+        long sum = 0;
+        for (int back = 0; back < n; back++) {
+            sum += get(field, back);
+        }
+        return sum;
+    }
+
+    public long max(final int field, final int window) {
+        final int n = Math.min(window, size());
+        long max = 0;
+        for (int back = 0; back < n; back++) {
+            max = Math.max(max, get(field, back));
+        }
+        return max;
+    }
+
+    /**
+     * @return transactions per second of {@code field} averaged over the newest {@code window} samples.
+     * */
+    public double meanRate(final int field, final int window) {
+        final int n = Math.min(window, size());
+        long duration = 0;
+        for (int back = 0; back < n; back++) {
+            duration += getDuration(back);
+        }
+        return duration > 0 ? sum(field, n) * 1000.0 / duration : 0;
+    }
+
+    /**
+     * @param period milliseconds, e.g. one minute for the newest round at the default Ict round duration
+     * @return transactions per second of {@code field} averaged over the newest samples whose rounds together cover
+     * {@code period}, or over all samples if they cover less.
+     * */
+    public double meanRateOver(final int field, final long period) {
+        final int n = size();
+        long duration = 0;
+        long sum = 0;
+        for (int back = 0; back < n && duration < period; back++) {
+            duration += getDuration(back);
+            sum += get(field, back);
+        }
+        return duration > 0 ? sum * 1000.0 / duration : 0;
+    }
+
+    /**
+     * @return {@code sum(numerator) / sum(denominator)} over the newest {@code window} samples, e.g. the invalid ratio.
+     * */
+    public double ratio(final int numerator, final int denominator, final int window) {
+        final long total = sum(denominator, window);
+        return total > 0 ? (double) sum(numerator, window) / total : 0;
+    }
+
+    private int slotFromEnd(final int back) {
+        if (back < 0 || back >= size()) {
+            throw new IndexOutOfBoundsException("sample " + back + " of " + size());
+        }
+        return slot(count - 1 - back);
+    }
+
+    private int slot(final long index) {
+        return (int) (index % capacity);
+    }
+}
@@ -0,0 +1,117 @@
+package org.iota.ixi.model;
+
+import org.json.JSONObject;
+
+/**
+ * Turns the per-round stats records Ict reports for a neighbor into transactions per second.
+ *
+ * Ict starts a new stats record at the beginning of every round, so the newest record may still be counting.
+ * Instead of guessing from the Ict version whether that is the case, the newest record whose round has ended by now
+ * is selected. The length of its round is taken from the timestamp of the following record, or from the configured
+ * round duration if there is none.
+ *
+ * A stats history which got shorter or a record older than the last one selected means that Ict restarted. Such a
+ * restart is counted and the new record is not compared with the ones from before.
+ * */
+public class NeighborRates {
+
+    private long lastTimestamp = -1;
+    private long lastRecords = -1;
+    private long restarts = 0;
+    private long duration = 0;
+    private double allTps = 0;
+    private double newTps = 0;
+    private double ignoredTps = 0;
+    private double invalidTps = 0;
+    private double requestedTps = 0;
+
+    /**
+     * Selects the newest completed record and derives the rates from it.
+     * @param now           current time in milliseconds
+     * @param roundDuration Ict round duration in milliseconds
+     * @return index of the selected record in {@code stats} or -1 if no round has completed yet.
+     * */
+    public synchronized int update(final IctNeighborStats stats, final long now, final long roundDuration) {
+        final int back = selectCompleted(stats, now, roundDuration);
+        if (back < 0) {
+            return -1;
+        }
+        final int index = stats.fromEnd(back);
+        final long timestamp = stats.getTimestamp(index);
+
+        if (stats.getRecords() < lastRecords || timestamp < lastTimestamp) {
+            restarts++;
+        }
+        lastRecords = stats.getRecords();
+        lastTimestamp = timestamp;
+
+        final int next = stats.fromEnd(back - 1);
+        final long measured = next >= 0 ? stats.getTimestamp(next) - timestamp : 0;
+        duration = measured > 0 ? measured : roundDuration;
+
+        final double perSecond = 1000.0 / duration;
+        allTps = stats.getAll(index) * perSecond;
+        newTps = stats.getNew(index) * perSecond;
+        ignoredTps = stats.getIgnored(index) * perSecond;
+        invalidTps = stats.getInvalid(index) * perSecond;
+        requestedTps = stats.getRequested(index) * perSecond;
+        return index;
+    }
+
+    /**
+     * @return how many records back from the newest one the newest completed record is, -1 if there is none.
+     * */
+    static int selectCompleted(final IctNeighborStats stats, final long now, final long roundDuration) {
+        for (int back = 0; back < stats.size(); back++) {
+            final int index = stats.fromEnd(back);
+            final int next = stats.fromEnd(back - 1);
+            // a round has ended once the next one started or its duration has passed
+            if (next >= 0 || stats.getTimestamp(index) + roundDuration <= now) {
+                return back;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return length of the round of the last selected record in milliseconds
+     * */
+    public synchronized long getDuration() {
+        return duration;
+    }
+
+    public synchronized long getRestarts() {
+        return restarts;
+    }
+
+    public synchronized double getAllTps() {
+        return allTps;
+    }
+
+    public synchronized double getNewTps() {
+        return newTps;
+    }
+
+    public synchronized double getIgnoredTps() {
+        return ignoredTps;
+    }
+
+    public synchronized double getInvalidTps() {
+        return invalidTps;
+    }
+
+    public synchronized double getRequestedTps() {
+        return requestedTps;
+    }
+
+    public synchronized JSONObject toJSON() {
+        return new JSONObject()
+                .put("round_ms", duration)
+                .put("all_tps", allTps)
+                .put("new_tps", newTps)
+                .put("ignored_tps", ignoredTps)
+                .put("invalid_tps", invalidTps)
+                .put("requested_tps", requestedTps)
+                .put("restarts", restarts);
+    }
+}
@@ -0,0 +1,114 @@
+package org.iota.ixi.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the neighbors of the module, indexed by their static address. Readers get an immutable snapshot without
+ * locking or copying. Writers build a new snapshot and publish it with a single atomic swap.
+ * */
+public class NeighborRegistry {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Collections.<Neighbor>emptyList()));
+
+    /**
+     * The neighbors at one point in time, see {@link #snapshot()}.
+     * */
+    public static final class Snapshot {
+
+        private final List<Neighbor> list;
+        private final Map<String, Neighbor> byAddress;
+
+        private Snapshot(final Collection<Neighbor> neighbors) {
+            final List<Neighbor> list = new ArrayList<>(neighbors.size());
+            final Map<String, Neighbor> byAddress = new HashMap<>(neighbors.size() * 2);
+            for (Neighbor neighbor : neighbors) {
+                // the first neighbor with an address wins, like a lookup in a list would
+                if (!byAddress.containsKey(neighbor.getAddress())) {
+                    byAddress.put(neighbor.getAddress(), neighbor);
+                    list.add(neighbor);
+                }
+            }
+            this.list = Collections.unmodifiableList(list);
+            this.byAddress = byAddress;
+        }
+
+        public Neighbor get(final String address) {
+            return byAddress.get(address);
+        }
+    }
+
+    /**
+     * @return the current neighbors, to look them up consistently and replace them with {@link #replaceAll(Snapshot, Collection)}.
+     * */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * @return the neighbor with this static address or {@code null}.
+     * */
+    public Neighbor get(final String address) {
+        return snapshot.get().byAddress.get(address);
+    }
+
+    /**
+     * @return an immutable list of all neighbors, in the order they were added.
+     * */
+    public List<Neighbor> list() {
+        return snapshot.get().list;
+    }
+
+    public int size() {
+        return snapshot.get().list.size();
+    }
+
+    /**
+     * Replaces the neighbors of {@code read} at once. Changes made since {@code read} are merged instead of lost:
+     * a neighbor registered concurrently with {@link #addIfAbsent(Neighbor)} stays registered, and wins over a
+     * neighbor with the same address in {@code neighbors}, since its callers hold on to the registered instance.
+     * */
+    public void replaceAll(final Snapshot read, final Collection<Neighbor> neighbors) {
+        Snapshot expected = read;
+        Snapshot replacement = new Snapshot(neighbors);
+        while (!snapshot.compareAndSet(expected, replacement)) {
+            expected = snapshot.get();
+            final List<Neighbor> merged = new ArrayList<>(neighbors.size() + expected.list.size());
+            for (Neighbor neighbor : neighbors) {
+                final Neighbor registered = expected.byAddress.get(neighbor.getAddress());
+                merged.add(registered != null ? registered : neighbor);
+            }
+            for (Neighbor neighbor : expected.list) {
+                if (read.byAddress.get(neighbor.getAddress()) != neighbor) {
+                    merged.add(neighbor);
+                }
+            }
+            replacement = new Snapshot(merged);
+        }
+    }
+
+    /**
+     * Adds a neighbor unless one with the same address is registered already.
+     * @return the registered neighbor with that address.
+     * */
+    public Neighbor addIfAbsent(final Neighbor neighbor) {
+        while (true) {
+            final Snapshot current = snapshot.get();
+            final Neighbor existing = current.byAddress.get(neighbor.getAddress());
+            if (existing != null) {
+                return existing;
+            }
+            final List<Neighbor> neighbors = new ArrayList<>(current.list.size() + 1);
+            neighbors.addAll(current.list);
+            neighbors.add(neighbor);
+            if (snapshot.compareAndSet(current, new Snapshot(neighbors))) {
+                return neighbor;
+            }
+        }
+    }
+}
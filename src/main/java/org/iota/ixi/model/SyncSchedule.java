@@ -0,0 +1,104 @@
+package org.iota.ixi.model;
+
+import org.json.JSONObject;
+
+/**
+ * Decides when to sync the neighbors with Ict next, aligned to the rounds of Ict.
+ *
+ * Ict starts a new stats record for every neighbor at the beginning of each round, so the neighbor payload is
+ * worth fetching right after a round boundary. After a sync which applied new stats, the next one is scheduled
+ * {@link #GRACE} milliseconds after the next boundary. If a sync found the payload unchanged, Ict did not start the
+ * new round yet or the node is idle: syncs are retried quickly, backing off exponentially up to the round duration.
+ * Without a known round start or after failed syncs, the schedule falls back to once per round.
+ * */
+public class SyncSchedule {
+
+    public enum Outcome { APPLIED, UNCHANGED, FAILED }
+
+    // time Ict takes to start the stats records of a new round
+    static final long GRACE = 1000;
+    static final long MIN_RETRY = 1000;
+    private static final long MIN_PERIOD = 1000;
+
+    private Outcome last = Outcome.FAILED;
+    // whether the last payload fetched was applied, unchanged payloads equal it
+    private boolean payloadApplied = false;
+    private long roundStart = -1;
+    private long retry = MIN_RETRY;
+    private long lastDelay = 0;
+    private long applied = 0;
+    private long skipped = 0;
+    private long failed = 0;
+
+    /**
+     * @param roundStart start of the newest round seen in the payload, -1 to keep the last known one
+     * */
+    public synchronized void record(final Outcome outcome, final long roundStart) {
+        last = outcome;
+        if (roundStart >= 0) {
+            this.roundStart = roundStart;
+        }
+        switch (outcome) {
+            case APPLIED:
+                applied++;
+                payloadApplied = true;
+                break;
+            case UNCHANGED:
+                skipped++;
+                break;
+            default:
+                failed++;
+                payloadApplied = false;
+        }
+    }
+
+    /**
+     * @return milliseconds to wait until the next sync
+     * */
+    public synchronized long nextDelay(final long now, final long roundDuration) {
+        final long period = Math.max(MIN_PERIOD, roundDuration);
+        if (last == Outcome.FAILED || roundStart < 0) {
+            retry = MIN_RETRY;
+            return lastDelay = period;
+        }
+        // the first boundary after the known round start which is not more than GRACE in the past
+        final long rounds = Math.max(0, now - GRACE - roundStart) / period + 1;
+        final long aligned = roundStart + rounds * period + GRACE - now;
+        if (last == Outcome.APPLIED) {
+            retry = MIN_RETRY;
+            return lastDelay = aligned;
+        }
+        final long delay = Math.min(retry, aligned);
+        retry = Math.min(retry * 2, period);
+        return lastDelay = delay;
+    }
+
+    /**
+     * @return {@code true} if the last sync which fetched a new payload applied it, so an unchanged payload can be
+     * skipped. Syncs which found the payload unchanged since do not count.
+     * */
+    public synchronized boolean isPayloadApplied() {
+        return payloadApplied;
+    }
+
+    public synchronized long getApplied() {
+        return applied;
+    }
+
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    public synchronized JSONObject toJSON() {
+        return new JSONObject()
+                .put("applied", applied)
+                .put("skipped", skipped)
+                .put("failed", failed)
+                .put("round_start", roundStart)
+                .put("next_delay_ms", lastDelay);
+    }
+}
@@ -0,0 +1,248 @@
+package org.iota.ixi.probe;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import org.iota.ict.model.transaction.Transaction;
+import org.iota.ict.model.transaction.TransactionBuilder;
+import org.iota.ict.utils.Trytes;
+import org.iota.ixi.metrics.HistogramSnapshot;
+import org.iota.ixi.metrics.LatencyHistogram;
+import org.iota.ixi.store.MeasurementStore;
+import org.iota.ixi.utils.Constants;
+import org.json.JSONObject;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Builds probe transactions and matches them when they show up in the gossip stream again.
+ *
+ * Every probe is tagged with {@link Constants#TAG} and carries the id of this module instance, a sequence number,
+ * the {@link System#nanoTime()} and the wall clock time it was built at. Our own probes are matched against a
+ * fixed-size window of outstanding sequence numbers and their round-trip latency (build, submit, gossip) is recorded
+ * with nanosecond resolution. Probes of other Measure.ixi instances can only be compared by wall clock time,
+ * their latency is recorded as propagation latency in milliseconds and is only as accurate as the clocks involved.
+ * */
+public class ProbeTracker {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/ProbeTracker");
+
+    private static final String PREFIX = "MIXI1";
+    private static final char SEPARATOR = '|';
+    // two trytes per ascii character, long enough for the prefix and four numbers
+    private static final int MESSAGE_TRYTES = 2 * 96;
+    private static final long EMPTY = -1;
+    // matched probes waiting for flush(), more are not persisted
+    private static final int UNPERSISTED_CAPACITY = 1024;
+
+    private final long instanceId = new Random().nextLong() & Long.MAX_VALUE;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final int windowMask;
+    private final AtomicLongArray outstandingSequence;
+    private final AtomicLongArray outstandingSentAt;
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram(TimeUnit.MINUTES.toNanos(10));
+    private final LatencyHistogram propagation = new LatencyHistogram(TimeUnit.MINUTES.toMillis(10));
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong foreign = new AtomicLong();
+    private volatile MeasurementStore store = null;
+    // timestamp, sequence and round trip of matched probes, handed from the gossip thread to the store thread
+    private final BlockingQueue<long[]> unpersisted = new ArrayBlockingQueue<>(UNPERSISTED_CAPACITY);
+
+    /**
+     * @param window maximum number of probes in flight, a power of two. Older probes are counted as lost.
+     * */
+    public ProbeTracker(final int window) {
+        if (window <= 0 || Integer.bitCount(window) != 1) {
+            throw new IllegalArgumentException("probe window must be a positive power of two: " + window);
+        }
+        this.windowMask = window - 1;
+        this.outstandingSequence = new AtomicLongArray(window);
+        this.outstandingSentAt = new AtomicLongArray(window);
+        for (int i = 0; i < window; i++) {
+            outstandingSequence.set(i, EMPTY);
+        }
+    }
+
+    public Transaction buildProbe() {
+        final long sequence = nextSequence.getAndIncrement();
+        final long sentAt = System.nanoTime();
+
+        final int slot = (int) (sequence & windowMask);
+        if (outstandingSequence.getAndSet(slot, EMPTY) != EMPTY) {
+            // the window wrapped before the previous probe in this slot came back
+            lost.incrementAndGet();
+        }
+        outstandingSentAt.set(slot, sentAt);
+        outstandingSequence.set(slot, sequence);
+
+        final TransactionBuilder builder = new TransactionBuilder();
+        builder.tag = Constants.TAG;
+        builder.asciiMessage(PREFIX + SEPARATOR + instanceId + SEPARATOR + sequence + SEPARATOR + sentAt + SEPARATOR + System.currentTimeMillis());
+        sent.incrementAndGet();
+        return builder.build();
+    }
+
+    /**
+     * Matches a transaction carrying {@link Constants#TAG} against the outstanding probes. Callers are expected to
+     * filter by tag first, see {@link org.iota.ixi.metrics.TagFilter}.
+     * */
+    public void onProbe(final Transaction transaction) {
+        final long receivedAt = System.nanoTime();
+        final long[] fields = parse(transaction.signatureFragments);
+        if (fields == null) {
+            return;
+        }
+
+        if (fields[0] != instanceId) {
+            foreign.incrementAndGet();
+            final long millis = System.currentTimeMillis() - fields[3];
+            if (millis >= 0) {
+                propagation.record(millis);
+            }
+            return;
+        }
+
+        final long sequence = fields[1];
+        final int slot = (int) (sequence & windowMask);
+        if (outstandingSequence.compareAndSet(slot, sequence, EMPTY)) {
+            final long nanos = receivedAt - fields[2];
+            roundTrip.record(nanos);
+            matched.incrementAndGet();
+            if (store != null) {
+                unpersisted.offer(new long[] {System.currentTimeMillis(), sequence, nanos});
+            }
+        }
+    }
+
+    /**
+     * Persists every matched probe from now on, {@code null} to stop. Probes are only written by {@link #flush()}.
+     * */
+    public void setStore(final MeasurementStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Appends the probes matched since the last call to the store, so the gossip thread never writes to it.
+     * Called periodically by the thread owning the store and once before the store is closed.
+     * */
+    public void flush() {
+        final MeasurementStore store = this.store;
+        long[] probe;
+        while ((probe = unpersisted.poll()) != null) {
+            if (store != null) {
+                store.appendProbe(probe[0], probe[1], probe[2]);
+            }
+        }
+    }
+
+    /**
+     * Records a round trip measured before, e.g. one replayed from a {@link MeasurementStore}.
+     * */
+    public void recordRoundTrip(final long nanos) {
+        roundTrip.record(nanos);
+    }
+
+    /**
+     * Counts every probe which has been outstanding for longer than {@code timeoutMillis} as lost.
+     * */
+    public void expire(final long timeoutMillis) {
+        final long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (int slot = 0; slot <= windowMask; slot++) {
+            final long sequence = outstandingSequence.get(slot);
+            if (sequence != EMPTY && outstandingSentAt.get(slot) - deadline < 0
+                    && outstandingSequence.compareAndSet(slot, sequence, EMPTY)) {
+                lost.incrementAndGet();
+                log.debug("Probe {} timed out after {} ms", Unbox.box(sequence), Unbox.box(timeoutMillis));
+            }
+        }
+    }
+
+    static long[] parse(final String signatureFragments) {
+        if (signatureFragments == null || signatureFragments.length() < MESSAGE_TRYTES) {
+            return null;
+        }
+        final String message = Trytes.toAscii(signatureFragments.substring(0, MESSAGE_TRYTES));
+        if (!message.startsWith(PREFIX + SEPARATOR)) {
+            return null;
+        }
+        final long[] fields = new long[4];
+        int start = PREFIX.length() + 1;
+        for (int i = 0; i < fields.length; i++) {
+            int end = start;
+            // System.nanoTime() may be negative
+            if (end < message.length() && message.charAt(end) == '-') {
+                end++;
+            }
+            final int digits = end;
+            while (end < message.length() && message.charAt(end) >= '0' && message.charAt(end) <= '9') {
+                end++;
+            }
+            if (end == digits || (i < fields.length - 1 && (end >= message.length() || message.charAt(end) != SEPARATOR))) {
+                return null;
+            }
+            try {
+                fields[i] = Long.parseLong(message.substring(start, end));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            start = end + 1;
+        }
+        return fields;
+    }
+
+    public HistogramSnapshot getRoundTrip() {
+        return roundTrip.snapshot();
+    }
+
+    public HistogramSnapshot getPropagation() {
+        return propagation.snapshot();
+    }
+
+    /**
+     * @return the live round trip histogram in nanoseconds
+     * */
+    public LatencyHistogram getRoundTripHistogram() {
+        return roundTrip;
+    }
+
+    /**
+     * @return the live propagation histogram in milliseconds
+     * */
+    public LatencyHistogram getPropagationHistogram() {
+        return propagation;
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getMatched() {
+        return matched.get();
+    }
+
+    public long getLost() {
+        return lost.get();
+    }
+
+    public long getForeign() {
+        return foreign.get();
+    }
+
+    public JSONObject toJSON() {
+        return new JSONObject()
+                .put("sent", getSent())
+                .put("matched", getMatched())
+                .put("lost", getLost())
+                .put("foreign", getForeign())
+                .put("round_trip", getRoundTrip().toJSON(TimeUnit.NANOSECONDS))
+                .put("propagation", getPropagation().toJSON(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,303 @@
+package org.iota.ixi.report;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import org.iota.ixi.utils.NamedThreadFactory;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sends reports to the RCS API in gzip-compressed batches from a background thread.
+ *
+ * {@link #offer(JSONObject)} never blocks: reports are dropped when the bounded queue is full. A batch which can not
+ * be delivered is retried with exponential backoff and, after {@link #MAX_ATTEMPTS}, spilled to disk. Spilled batches
+ * are resent oldest first as soon as the endpoint accepts batches again.
+ * */
+public class Reporter {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/Reporter");
+
+    public static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final long BATCH_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final long INITIAL_BACKOFF = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_SPILLED_BATCHES = 1000;
+    private static final String SPILL_SUFFIX = ".json.gz";
+
+    private final String endpoint;
+    private final File spillDirectory;
+    private final BlockingQueue<JSONObject> queue;
+    private final CloseableHttpClient httpClient;
+    private final int timeoutMillis;
+    private final Random random = new Random();
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sentBatches = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong spilledBatches = new AtomicLong();
+
+    private volatile Thread worker = null;
+
+    /**
+     * @param endpoint       URL the batches are POSTed to
+     * @param spillDirectory where undeliverable batches are kept until the endpoint is back
+     * @param queueCapacity  number of reports buffered in memory
+     * @param timeoutMillis  connect and read timeout of a single attempt
+     * */
+    public Reporter(final String endpoint, final File spillDirectory, final int queueCapacity, final int timeoutMillis) {
+        this.endpoint = endpoint;
+        this.spillDirectory = spillDirectory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.timeoutMillis = timeoutMillis;
+        this.httpClient = HttpClients.custom()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeoutMillis)
+                        .setSocketTimeout(timeoutMillis)
+                        .setConnectionRequestTimeout(timeoutMillis)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        this.spilledBatches.set(listSpilled().length);
+    }
+
+    /**
+     * Queues a report without blocking.
+     * @return {@code false} if the queue is full and the report was dropped.
+     * */
+    public boolean offer(final JSONObject report) {
+        offered.incrementAndGet();
+        if (!queue.offer(report)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        worker = new NamedThreadFactory("MeasureIxi-reporter").newThread(new Runnable() {
+            @Override
+            public void run() {
+                work();
+            }
+        });
+        worker.start();
+    }
+
+    /**
+     * Stops the worker and closes the client once the worker is done with it. A request in flight is not interrupted,
+     * so this may wait for its timeouts. Reports which have not been delivered by then are spilled to disk like any
+     * other undeliverable batch.
+     * */
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                // connection request, connect and read may each take up to the timeout
+                worker.join(3L * timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error("Failed to close reporter client: {}", e.toString());
+        }
+    }
+
+    private void work() {
+        final List<JSONObject> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                collectBatch(batch);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    final byte[] payload = compress(toPayload(batch));
+                    if (sendWithBackoff(payload)) {
+                        resendSpilled();
+                    } else {
+                        spill(payload);
+                    }
+                } catch (IOException e) {
+                    // a full disk or an unreadable spill file must not end reporting
+                    log.error("Failed to handle report batch: {}", e.toString());
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // stopped, the batch in hand has not been delivered
+        }
+        spillUndelivered(batch);
+    }
+
+    private void spillUndelivered(final List<JSONObject> batch) {
+        queue.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        log.info("Reporter stopped, spilling {} undelivered reports", Unbox.box(batch.size()));
+        try {
+            for (int from = 0; from < batch.size(); from += MAX_BATCH_SIZE) {
+                spill(compress(toPayload(batch.subList(from, Math.min(batch.size(), from + MAX_BATCH_SIZE)))));
+            }
+        } catch (IOException e) {
+            log.error("Failed to spill undelivered reports: {}", e.toString());
+        }
+        batch.clear();
+    }
+
+    private void collectBatch(final List<JSONObject> batch) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + BATCH_INTERVAL;
+        long remaining;
+        while (batch.size() < MAX_BATCH_SIZE && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            final JSONObject report = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (report == null) {
+                break;
+            }
+            batch.add(report);
+            queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+        }
+    }
+
+    private static String toPayload(final List<JSONObject> batch) {
+        return new JSONObject()
+                .put("timestamp", System.currentTimeMillis())
+                .put("reports", new JSONArray(batch))
+                .toString();
+    }
+
+    static byte[] compress(final String payload) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private boolean sendWithBackoff(final byte[] payload) throws InterruptedException {
+        long backoff = INITIAL_BACKOFF;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (send(payload)) {
+                return true;
+            }
+            failedAttempts.incrementAndGet();
+            if (attempt < MAX_ATTEMPTS) {
+                // full jitter keeps a fleet of modules from retrying in lockstep
+                Thread.sleep(backoff / 2 + (long) (random.nextDouble() * backoff / 2));
+                backoff = Math.min(MAX_BACKOFF, backoff * 2);
+            }
+        }
+        return false;
+    }
+
+    private boolean send(final byte[] payload) {
+        final HttpPost post = new HttpPost(endpoint);
+        final ByteArrayEntity entity = new ByteArrayEntity(payload, ContentType.APPLICATION_JSON);
+        entity.setContentEncoding("gzip");
+        post.setEntity(entity);
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            final int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode / 100 == 2) {
+                sentBatches.incrementAndGet();
+                sentBytes.addAndGet(payload.length);
+                return true;
+            }
+            log.warn("RCS API ({}) rejected report batch, status code: {}", endpoint, statusCode);
+        } catch (IOException e) {
+            log.warn("Failed to send report batch to RCS API ({}): {}", endpoint, e.toString());
+        }
+        return false;
+    }
+
+    private void spill(final byte[] payload) throws IOException {
+        if (!spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            throw new IOException("Could not create directory " + spillDirectory.getPath());
+        }
+        final File[] spilled = listSpilled();
+        for (int i = 0; i <= spilled.length - MAX_SPILLED_BATCHES; i++) {
+            if (spilled[i].delete()) {
+                log.warn("Discarded spilled report batch {}, spill limit reached", spilled[i].getName());
+            }
+        }
+        final File file = new File(spillDirectory, String.format("batch-%016d-%04d", System.currentTimeMillis(), random.nextInt(10000)) + SPILL_SUFFIX);
+        Files.write(file.toPath(), payload);
+        spilledBatches.incrementAndGet();
+        log.info("Spilled report batch to {}", file.getPath());
+    }
+
+    private void resendSpilled() throws IOException {
+        for (File file : listSpilled()) {
+            if (!send(Files.readAllBytes(file.toPath()))) {
+                // try again after the next successful batch
+                return;
+            }
+            if (!file.delete()) {
+                log.warn("Failed to delete resent report batch {}", file.getPath());
+                return;
+            }
+            spilledBatches.decrementAndGet();
+        }
+    }
+
+    private File[] listSpilled() {
+        final File[] files = spillDirectory.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        final List<File> spilled = new ArrayList<>(files.length);
+        for (File file : files) {
+            if (file.getName().endsWith(SPILL_SUFFIX)) {
+                spilled.add(file);
+            }
+        }
+        final File[] sorted = spilled.toArray(new File[spilled.size()]);
+        // names start with the spill time, so they sort oldest first
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    public JSONObject getStats() {
+        return new JSONObject()
+                .put("queued", queue.size())
+                .put("offered", offered.get())
+                .put("dropped", dropped.get())
+                .put("sent_batches", sentBatches.get())
+                .put("sent_bytes", sentBytes.get())
+                .put("failed_attempts", failedAttempts.get())
+                .put("spilled_batches", spilledBatches.get());
+    }
+}
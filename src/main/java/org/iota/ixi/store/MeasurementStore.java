@@ -0,0 +1,308 @@
+package org.iota.ixi.store;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An append-only store of measurements, written to memory-mapped segment files of fixed size.
+ *
+ * Every record is {@link #RECORD_SIZE} bytes wide. Its type byte is written last, so a record is either complete
+ * or still zero and replay stops at the first zero type. Once a segment is full the next one is created, and the
+ * oldest segments are deleted beyond {@code maxSegments}. Appending only copies a record into mapped memory,
+ * the operating system writes it back to disk.
+ *
+ * Neighbor stats refer to their address by a 64 bit hash. The full address is written in address records once per
+ * segment before its first stats record, so every segment can be replayed on its own.
+ * */
+public class MeasurementStore {
+
+    private static final Logger log = LogManager.getLogger("MeasureIxi/MeasurementStore");
+
+    public static final int RECORD_SIZE = 96;
+
+    // record type 1 is reserved
+    private static final byte TYPE_PROBE = 2;
+    private static final byte TYPE_ADDRESS = 3;
+    private static final byte TYPE_NEIGHBOR_STATS = 4;
+
+    // layout of a record
+    private static final int OFFSET_TYPE = 0;
+    private static final int OFFSET_TIMESTAMP = 8;
+    private static final int OFFSET_VALUES = 16;
+    private static final int VALUES = 5;
+    private static final int OFFSET_ADDRESS_KEY = OFFSET_VALUES + VALUES * 8;
+    // layout of an address record: one chunk of the UTF-8 encoded address, keyed by its hash at OFFSET_TIMESTAMP
+    private static final int OFFSET_CHUNK_INDEX = 1;
+    private static final int OFFSET_CHUNK_COUNT = 2;
+    private static final int OFFSET_CHUNK_LENGTH = 3;
+    private static final int OFFSET_CHUNK = OFFSET_VALUES;
+    private static final int CHUNK_SIZE = RECORD_SIZE - OFFSET_CHUNK;
+    public static final int MAX_ADDRESS_LENGTH = 127 * CHUNK_SIZE;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    // hashes of the addresses written to the current segment
+    private final Set<Long> addressesInSegment = new HashSet<>();
+
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+
+    /**
+     * Receives the records of {@link #replay(Visitor)} in the order they were appended.
+     * */
+    public interface Visitor {
+        void onNeighborStats(String address, long timestamp, long all, long newTx, long ignored, long invalid, long requested);
+
+        void onProbe(long timestamp, long sequence, long roundTripNanos);
+    }
+
+    /**
+     * @param segmentSize size of a segment file in bytes, rounded down to whole records
+     * @param maxSegments number of segment files kept on disk
+     * */
+    public MeasurementStore(final File directory, final int segmentSize, final int maxSegments) throws IOException {
+        if (segmentSize < RECORD_SIZE || maxSegments < 1) {
+            throw new IllegalArgumentException("a store needs at least one segment of one record");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory.getPath());
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.maxSegments = maxSegments;
+
+        final long[] segments = listSegments();
+        segmentIndex = segments.length > 0 ? segments[segments.length - 1] : 0;
+        segment = map(segmentIndex);
+        segment.position(firstFreeRecord(segment));
+    }
+
+    public synchronized boolean appendNeighborStats(final String address, final long timestamp,
+                                                    final long all, final long newTx, final long ignored, final long invalid, final long requested) {
+        if (segment == null) {
+            return false;
+        }
+        final long key = hash(address);
+        if (!addressesInSegment.contains(key)) {
+            final byte[] bytes = address.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_ADDRESS_LENGTH) {
+                return false;
+            }
+            final int chunks = Math.max(1, (bytes.length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            // the address and its first stats go into the same segment
+            if (!ensureCapacity(chunks + 1)) {
+                return false;
+            }
+            writeAddress(key, bytes, chunks);
+        } else if (!ensureCapacity(1)) {
+            return false;
+        }
+        final int record = segment.position();
+        segment.putLong(record + OFFSET_TIMESTAMP, timestamp);
+        segment.putLong(record + OFFSET_VALUES, all);
+        segment.putLong(record + OFFSET_VALUES + 8, newTx);
+        segment.putLong(record + OFFSET_VALUES + 16, ignored);
+        segment.putLong(record + OFFSET_VALUES + 24, invalid);
+        segment.putLong(record + OFFSET_VALUES + 32, requested);
+        segment.putLong(record + OFFSET_ADDRESS_KEY, key);
+        commit(record, TYPE_NEIGHBOR_STATS);
+        return true;
+    }
+
+    private void writeAddress(final long key, final byte[] bytes, final int chunks) {
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int offset = chunk * CHUNK_SIZE;
+            final int length = Math.min(CHUNK_SIZE, bytes.length - offset);
+            final int record = segment.position();
+            segment.put(record + OFFSET_CHUNK_INDEX, (byte) chunk);
+            segment.put(record + OFFSET_CHUNK_COUNT, (byte) chunks);
+            segment.put(record + OFFSET_CHUNK_LENGTH, (byte) length);
+            segment.putLong(record + OFFSET_TIMESTAMP, key);
+            for (int i = 0; i < length; i++) {
+                segment.put(record + OFFSET_CHUNK + i, bytes[offset + i]);
+            }
+            commit(record, TYPE_ADDRESS);
+        }
+        addressesInSegment.add(key);
+    }
+
+    /**
+     * 64 bit FNV-1a of the address characters.
+     * */
+    static long hash(final String address) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < address.length(); i++) {
+            hash = (hash ^ address.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public synchronized boolean appendProbe(final long timestamp, final long sequence, final long roundTripNanos) {
+        if (segment == null) {
+            return false;
+        }
+        if (!ensureCapacity(1)) {
+            return false;
+        }
+        final int record = segment.position();
+        segment.putLong(record + OFFSET_TIMESTAMP, timestamp);
+        segment.putLong(record + OFFSET_VALUES, sequence);
+        segment.putLong(record + OFFSET_VALUES + 8, roundTripNanos);
+        commit(record, TYPE_PROBE);
+        return true;
+    }
+
+    private void commit(final int record, final byte type) {
+        segment.put(record + OFFSET_TYPE, type);
+        segment.position(record + RECORD_SIZE);
+    }
+
+    /**
+     * Reads all records of all segments on disk, oldest first.
+     * */
+    public synchronized void replay(final Visitor visitor) throws IOException {
+        final byte[] address = new byte[MAX_ADDRESS_LENGTH];
+        final Map<Long, String> addresses = new HashMap<>();
+        for (long index : listSegments()) {
+            final MappedByteBuffer buffer = index == segmentIndex && segment != null ? segment : map(index);
+            int addressLength = 0;
+            for (int record = 0; record + RECORD_SIZE <= buffer.capacity(); record += RECORD_SIZE) {
+                final byte type = buffer.get(record + OFFSET_TYPE);
+                if (type == TYPE_ADDRESS) {
+                    // the chunks of an address are written one after another
+                    final int chunk = buffer.get(record + OFFSET_CHUNK_INDEX);
+                    final int length = buffer.get(record + OFFSET_CHUNK_LENGTH);
+                    if (chunk == 0) {
+                        addressLength = 0;
+                    }
+                    for (int i = 0; i < length; i++) {
+                        address[addressLength++] = buffer.get(record + OFFSET_CHUNK + i);
+                    }
+                    if (chunk == buffer.get(record + OFFSET_CHUNK_COUNT) - 1) {
+                        addresses.put(buffer.getLong(record + OFFSET_TIMESTAMP), new String(address, 0, addressLength, StandardCharsets.UTF_8));
+                    }
+                } else if (type == TYPE_NEIGHBOR_STATS) {
+                    final String neighbor = addresses.get(buffer.getLong(record + OFFSET_ADDRESS_KEY));
+                    if (neighbor != null) {
+                        visitNeighborStats(visitor, buffer, record, neighbor);
+                    }
+                } else if (type == TYPE_PROBE) {
+                    visitor.onProbe(buffer.getLong(record + OFFSET_TIMESTAMP),
+                            buffer.getLong(record + OFFSET_VALUES),
+                            buffer.getLong(record + OFFSET_VALUES + 8));
+                } else {
+                    // end of the written part of this segment
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void visitNeighborStats(final Visitor visitor, final MappedByteBuffer buffer, final int record, final String address) {
+        visitor.onNeighborStats(address,
+                buffer.getLong(record + OFFSET_TIMESTAMP),
+                buffer.getLong(record + OFFSET_VALUES),
+                buffer.getLong(record + OFFSET_VALUES + 8),
+                buffer.getLong(record + OFFSET_VALUES + 16),
+                buffer.getLong(record + OFFSET_VALUES + 24),
+                buffer.getLong(record + OFFSET_VALUES + 32));
+    }
+
+    public synchronized void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    /**
+     * Makes room for {@code records} consecutive records, in the next segment if the current one is too full.
+     * */
+    private boolean ensureCapacity(final int records) {
+        if (segment.remaining() >= records * RECORD_SIZE) {
+            return true;
+        }
+        if (segmentSize < records * RECORD_SIZE) {
+            return false;
+        }
+        segment.force();
+        try {
+            segment = map(++segmentIndex);
+            addressesInSegment.clear();
+            deleteOldSegments();
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to roll measurement store segment {}: {}", segmentIndex, e.toString());
+            segment = null;
+            return false;
+        }
+    }
+
+    private void deleteOldSegments() {
+        final long[] segments = listSegments();
+        for (int i = 0; i < segments.length - maxSegments; i++) {
+            final File file = segmentFile(segments[i]);
+            if (!file.delete()) {
+                log.warn("Failed to delete old measurement store segment {}", file.getPath());
+            }
+        }
+    }
+
+    private MappedByteBuffer map(final long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(index).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private static int firstFreeRecord(final MappedByteBuffer buffer) {
+        int record = 0;
+        while (record + RECORD_SIZE <= buffer.capacity() && buffer.get(record + OFFSET_TYPE) != 0) {
+            record += RECORD_SIZE;
+        }
+        return record;
+    }
+
+    private File segmentFile(final long index) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%016d", index) + SEGMENT_SUFFIX);
+    }
+
+    private long[] listSegments() {
+        final String[] names = directory.list();
+        if (names == null) {
+            return new long[0];
+        }
+        long[] indices = new long[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    final long index = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    indices[count++] = index;
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in measurement store", name);
+                }
+            }
+        }
+        indices = Arrays.copyOf(indices, count);
+        Arrays.sort(indices);
+        return indices;
+    }
+}
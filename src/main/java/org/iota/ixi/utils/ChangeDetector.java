@@ -0,0 +1,80 @@
+package org.iota.ixi.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Remembers a fingerprint of the last response body of an Ict REST API route, to skip applying a payload which did
+ * not change since. The fingerprint combines the CRC32 and the length of the body and is computed by a
+ * {@link FingerprintingInputStream} while the body is read, so the body is never buffered for it.
+ * */
+public class ChangeDetector {
+
+    private boolean known = false;
+    private long fingerprint = 0;
+
+    /**
+     * Compares a body which was read to its end with the last one and remembers it.
+     * @return {@code true} if the body differs from the last one or there was none.
+     * */
+    public synchronized boolean changed(final FingerprintingInputStream body) {
+        final long fingerprint = body.getFingerprint();
+        final boolean changed = !known || fingerprint != this.fingerprint;
+        this.fingerprint = fingerprint;
+        known = true;
+        return changed;
+    }
+
+    /**
+     * Forgets the last body, e.g. because it could not be parsed, so that the next one counts as changed.
+     * */
+    public synchronized void forget() {
+        known = false;
+    }
+
+    /**
+     * Fingerprints the bytes read through it.
+     * */
+    public static class FingerprintingInputStream extends CheckedInputStream {
+
+        private long length = 0;
+
+        public FingerprintingInputStream(final InputStream in) {
+            super(in, new CRC32());
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                length++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                this.length += read;
+            }
+            return read;
+        }
+
+        /**
+         * Reads the rest of the stream, so the fingerprint covers all of it.
+         * */
+        public void drain() throws IOException {
+            final byte[] buffer = new byte[512];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // fingerprinted by read
+            }
+        }
+
+        public long getFingerprint() {
+            return (length << 32) | getChecksum().getValue();
+        }
+    }
+}
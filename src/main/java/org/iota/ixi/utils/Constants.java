@@ -9,8 +9,29 @@ public class Constants {
     public static final String VERSION = "0.6";
     public static final String RCS_API = "http://api.ictreport.com/v1";
     public static final String TAG = "MEASURE9IXI99999999999999999";
+    public static final String LOAD_TAG = "MEASURE9IXI9LOAD99999999999";
     public static final String MEASURE_IXI_CONFIG_FILE = "modules/measure.ixi-" + Constants.VERSION + ".jar.cfg";
+    public static final String MEASURE_IXI_HISTORY_DIRECTORY = "modules/measure.ixi-" + Constants.VERSION + "-history";
+    public static final int HISTORY_SEGMENT_SIZE = 4 * 1024 * 1024;
+    public static final int HISTORY_MAX_SEGMENTS = 16;
+    public static final String MEASURE_IXI_SPILL_DIRECTORY = "modules/measure.ixi-" + Constants.VERSION + "-spill";
+    public static final String RCS_REPORT_ENDPOINT = RCS_API + "/reports";
+    public static final int REPORT_QUEUE_CAPACITY = 256;
+    public static final String ICT_REST_HOST = "localhost";
     public static final int REQUEST_TIMEOUT = 10;
+    public static final int SYNC_DEADLINE = 5000;
+    public static final long DUPLICATE_FILTER_MEMORY = 4 * 1024 * 1024;
+    public static final double DUPLICATE_FILTER_FALSE_POSITIVES = 0.001;
+    public static final int PROBE_INTERVAL = 10000;
+    public static final int PROBE_TIMEOUT = 60000;
+    public static final int PROBE_WINDOW = 64;
+    public static final int METRICS_PORT = 2188;
+    public static final String GOSSIP_ENVIRONMENT = "gossip";
+    public static final int HEAVY_HITTER_WIDTH = 8192;
+    public static final int HEAVY_HITTER_CANDIDATES = 1024;
+    public static final int HEAVY_HITTER_WINDOW = 60000;
+    public static final int FLEET_MAX_BACKOFF = 600000;
+    public static final long FLEET_MAX_RESPONSE_SIZE = 8 * 1024 * 1024;
 
     private static final List<String> previousVersions = Arrays.asList(
             "0.5.3-SNAPSHOT",
@@ -1,29 +1,74 @@
 package org.iota.ixi.utils;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.iota.ixi.jfr.Events;
+import org.iota.ixi.metrics.HistogramSnapshot;
+import org.iota.ixi.metrics.LatencyHistogram;
+import org.iota.ixi.model.IctNeighborStats;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringWriter;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class IctRestCaller {
 
-    private static final Logger log = LogManager.getLogger("ReportIxi/IctRestCaller");
+    private static final Logger log = LogManager.getLogger("MeasureIxi/IctRestCaller");
+
+    // The Ict REST API is served by the local node, a handful of keep-alive connections is enough.
+    private static final int MAX_CONNECTIONS = 4;
+    private static final int IDLE_TIMEOUT = 60;
+
+    private static final PoolingHttpClientConnectionManager connectionManager = createConnectionManager();
+    private static final CloseableHttpClient httpClient = createHttpClient(connectionManager);
+    private static final LatencyHistogram latency = new LatencyHistogram(TimeUnit.SECONDS.toNanos(Constants.REQUEST_TIMEOUT * 2));
+    private static final AtomicLong failedCalls = new AtomicLong();
+
+    private static PoolingHttpClientConnectionManager createConnectionManager() {
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(MAX_CONNECTIONS);
+        manager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+        // connections which idled for a while may have been closed by Ict, check them before reuse
+        manager.setValidateAfterInactivity(1000);
+        return manager;
+    }
+
+    private static CloseableHttpClient createHttpClient(final PoolingHttpClientConnectionManager manager) {
+        final int timeout = (int) TimeUnit.SECONDS.toMillis(Constants.REQUEST_TIMEOUT);
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictIdleConnections(IDLE_TIMEOUT, TimeUnit.SECONDS)
+                .build();
+    }
 
     public static JSONObject getInfo(final int ictRestPort, final String ictRestPassword) {
         log.debug("Fetching data from Ict REST API endpoint: /getInfo");
@@ -52,13 +97,81 @@ public class IctRestCaller {
         return null;
     }
 
+    /**
+     * Streams the /getNeighbors response and keeps only the newest {@code tail} stats records of every neighbor.
+     * */
+    public static List<IctNeighborStats> getNeighborStats(final int ictRestPort, final String ictRestPassword, final int tail) {
+        return call("getNeighbors", ictRestPort, ictRestPassword, new BodyReader<List<IctNeighborStats>>() {
+            @Override
+            public List<IctNeighborStats> read(final HttpEntity entity) throws IOException {
+                try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+                    return new NeighborStatsParser(tail).parse(reader);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returned by {@link #getNeighborStats(int, String, int, ChangeDetector)} instead of the parsed stats if the
+     * response equals the last one. Compare by identity.
+     * */
+    public static final List<IctNeighborStats> UNCHANGED = Collections.unmodifiableList(new ArrayList<IctNeighborStats>(0));
+
+    /**
+     * Like {@link #getNeighborStats(int, String, int)}, but fingerprints the response while it is streamed and returns
+     * {@link #UNCHANGED} if it did not change since the last call with the same detector, so the caller can skip
+     * applying it.
+     * @return the parsed stats, {@link #UNCHANGED} or {@code null} if the call failed
+     * */
+    public static List<IctNeighborStats> getNeighborStats(final int ictRestPort, final String ictRestPassword, final int tail,
+                                                          final ChangeDetector changes) {
+        return call("getNeighbors", ictRestPort, ictRestPassword, new BodyReader<List<IctNeighborStats>>() {
+            @Override
+            public List<IctNeighborStats> read(final HttpEntity entity) throws IOException {
+                final ChangeDetector.FingerprintingInputStream body = new ChangeDetector.FingerprintingInputStream(entity.getContent());
+                final List<IctNeighborStats> stats;
+                try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+                    stats = new NeighborStatsParser(tail).parse(reader);
+                    // the parser stops at the end of the JSON document
+                    body.drain();
+                } catch (IOException | RuntimeException e) {
+                    // let the same payload be applied next time instead of skipping it as unchanged
+                    changes.forget();
+                    throw e;
+                }
+                return changes.changed(body) ? stats : UNCHANGED;
+            }
+        });
+    }
+
+    private interface BodyReader<T> {
+        T read(HttpEntity entity) throws IOException;
+    }
+
+    private static final BodyReader<String> STRING_BODY = new BodyReader<String>() {
+        @Override
+        public String read(final HttpEntity entity) throws IOException {
+            return EntityUtils.toString(entity, "UTF-8");
+        }
+    };
+
     private static String call(final String route, final int ictRestPort, final String ictRestPassword) {
-        //try {
-        final String endpoint = "http://localhost:" + ictRestPort + "/" + route;
-        log.debug("Fetching Ict REST API (" + endpoint + ")...");
+        return call(route, ictRestPort, ictRestPassword, STRING_BODY);
+    }
+
+    /**
+     * @return the URL of an Ict REST API route
+     * */
+    public static String endpoint(final String host, final int ictRestPort, final String route) {
+        return "http://" + host + ":" + ictRestPort + "/" + route;
+    }
 
-        final CloseableHttpClient httpclient = HttpClients.createDefault();
-        HttpPost httppost = new HttpPost(endpoint);
+    /**
+     * Builds the POST request for a route, with the password as form parameter. Shared with the
+     * {@link org.iota.ixi.fleet.FleetMonitor}, which sends it through its own client.
+     * */
+    public static HttpPost buildRequest(final String host, final int ictRestPort, final String ictRestPassword, final String route) {
+        final HttpPost httppost = new HttpPost(endpoint(host, ictRestPort, route));
 
         try {
             // Request parameters and other properties.
@@ -66,38 +179,89 @@ public class IctRestCaller {
             params.add(new BasicNameValuePair("password", ictRestPassword));
             httppost.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
         } catch (UnsupportedEncodingException e) {
-            log.error("Failed to set request params, error: UnsupportedEncodingException");
+            log.error("Failed to set request params: {}", e.toString());
         }
+        return httppost;
+    }
 
-        //Execute and get the response.
-        CloseableHttpResponse response = null;
-        try {
-            response = httpclient.execute(httppost);
-        } catch (IOException e) {
-            log.error("Exception thrown when calling Ict REST API (" + endpoint + "), IOException");
-        }
+    private static <T> T call(final String route, final int ictRestPort, final String ictRestPassword, final BodyReader<T> body) {
+        final String endpoint = endpoint(Constants.ICT_REST_HOST, ictRestPort, route);
+        log.debug("Fetching Ict REST API ({})...", endpoint);
+
+        final HttpPost httppost = buildRequest(Constants.ICT_REST_HOST, ictRestPort, ictRestPassword, route);
 
-        if (response != null) {
-            int statusCode = response.getStatusLine().getStatusCode();
+        //Execute and get the response. Closing the response hands the connection back to the pool.
+        final Object event = Events.SINK.beginRestCall();
+        int statusCode = -1;
+        long bytes = -1;
+        final long start = System.nanoTime();
+        try (CloseableHttpResponse response = httpClient.execute(httppost)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            final HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                bytes = entity.getContentLength();
+            }
             if (statusCode != 200) {
-                log.error("Failed to fetch details from Ict REST API (" + endpoint + "), status code: " + statusCode);
+                EntityUtils.consumeQuietly(entity);
+                failedCalls.incrementAndGet();
+                log.error("Failed to fetch details from Ict REST API ({}), status code: {}", endpoint, statusCode);
                 return null;
             }
-
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-                try (InputStream instream = entity.getContent()) {
-                    StringWriter writer = new StringWriter();
-                    IOUtils.copy(instream, writer, "UTF-8");
-                    final String json = writer.toString();
-                    log.debug("Successfully fetched details from " + endpoint);
-                    return json;
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    log.error("Failed to parse response from Ict REST API (" + endpoint + ").");
-                }
+            if (entity == null) {
+                failedCalls.incrementAndGet();
+                return null;
             }
+            final T result = body.read(entity);
+            latency.record(System.nanoTime() - start);
+            log.debug("Successfully fetched details from {}", endpoint);
+            return result;
+        } catch (IOException e) {
+            failedCalls.incrementAndGet();
+            log.error("Exception thrown when calling Ict REST API ({}), {}", endpoint, e.toString());
+        } finally {
+            Events.SINK.endRestCall(event, route, statusCode, bytes);
         }
         return null;
     }
+
+    /**
+     * @return latency of successful calls, failed calls and the state of the connection pool.
+     * */
+    public static JSONObject getStats() {
+        final PoolStats pool = connectionManager.getTotalStats();
+        return new JSONObject()
+                .put("failed", failedCalls.get())
+                .put("latency", latency.snapshot().toJSON(TimeUnit.NANOSECONDS))
+                .put("pool", new JSONObject()
+                        .put("leased", pool.getLeased())
+                        .put("available", pool.getAvailable())
+                        .put("pending", pool.getPending())
+                        .put("max", pool.getMax()));
+    }
+
+    public static HistogramSnapshot getLatency() {
+        return latency.snapshot();
+    }
+
+    /**
+     * @return the live latency histogram of successful calls in nanoseconds
+     * */
+    public static LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public static long getFailedCalls() {
+        return failedCalls.get();
+    }
+
+    /**
+     * Closes all pooled connections. Further calls will fail.
+     * */
+    public static void shutdown() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error("Failed to close Ict REST API client: {}", e.toString());
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package org.iota.ixi.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often a message which may occur per transaction is logged, so that a burst of failures neither floods
+ * the log nor makes the gossip threads wait for it. Messages over the limit are counted, the next message which gets
+ * through reports them via {@link #drainSuppressed()}. Lock-free and allocation-free.
+ * */
+public class LogRateLimiter {
+
+    private final int permits;
+    private final long intervalNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * @param permits  messages logged per interval at most
+     * */
+    public LogRateLimiter(final int permits, final long interval, final TimeUnit unit) {
+        this.permits = permits;
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * @return {@code true} if the message may be logged, otherwise it was counted as suppressed.
+     * */
+    public boolean tryAcquire() {
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return messages suppressed since the last call
+     * */
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
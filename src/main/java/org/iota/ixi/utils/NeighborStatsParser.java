@@ -0,0 +1,293 @@
+package org.iota.ixi.utils;
+
+import org.iota.ixi.model.IctNeighborStats;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming parser for the response of the Ict REST API route /getNeighbors. Unlike {@code new JSONObject(json)}
+ * it neither buffers the response nor builds a tree: every stats record is read into primitives and only the last
+ * {@code tail} records of each neighbor are kept. Unknown fields are skipped.
+ *
+ * Instances are not thread-safe, but cheap to create.
+ * */
+public class NeighborStatsParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int tail;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder token = new StringBuilder(64);
+    private Reader reader;
+    private int position;
+    private int limit;
+
+    /**
+     * @param tail number of newest stats records to keep per neighbor
+     * */
+    public NeighborStatsParser(final int tail) {
+        if (tail <= 0) {
+            throw new IllegalArgumentException("tail must be positive: " + tail);
+        }
+        this.tail = tail;
+    }
+
+    public List<IctNeighborStats> parse(final Reader reader) throws IOException {
+        this.reader = reader;
+        this.position = 0;
+        this.limit = 0;
+        try {
+            final List<IctNeighborStats> neighbors = new ArrayList<>();
+            expect('{');
+            if (peekNonWhitespace() == '}') {
+                next();
+                return neighbors;
+            }
+            do {
+                readString();
+                expect(':');
+                if (tokenEquals("neighbors")) {
+                    parseNeighbors(neighbors);
+                } else {
+                    skipValue();
+                }
+            } while (nextSeparator('}'));
+            return neighbors;
+        } finally {
+            this.reader = null;
+        }
+    }
+
+    private void parseNeighbors(final List<IctNeighborStats> neighbors) throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            next();
+            return;
+        }
+        do {
+            neighbors.add(parseNeighbor());
+        } while (nextSeparator(']'));
+    }
+
+    private IctNeighborStats parseNeighbor() throws IOException {
+        final IctNeighborStats stats = new IctNeighborStats(null, tail);
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            next();
+            return stats;
+        }
+        do {
+            readString();
+            expect(':');
+            if (tokenEquals("address")) {
+                readString();
+                stats.setAddress(token.toString());
+            } else if (tokenEquals("stats")) {
+                parseStats(stats);
+            } else {
+                skipValue();
+            }
+        } while (nextSeparator('}'));
+        return stats;
+    }
+
+    private void parseStats(final IctNeighborStats stats) throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            next();
+            return;
+        }
+        do {
+            long timestamp = 0, all = 0, newTx = 0, ignored = 0, invalid = 0, requested = 0;
+            expect('{');
+            if (peekNonWhitespace() != '}') {
+                do {
+                    readString();
+                    expect(':');
+                    if (tokenEquals("timestamp")) {
+                        timestamp = readLong();
+                    } else if (tokenEquals("all")) {
+                        all = readLong();
+                    } else if (tokenEquals("new")) {
+                        newTx = readLong();
+                    } else if (tokenEquals("ignored")) {
+                        ignored = readLong();
+                    } else if (tokenEquals("invalid")) {
+                        invalid = readLong();
+                    } else if (tokenEquals("requested")) {
+                        requested = readLong();
+                    } else {
+                        skipValue();
+                    }
+                } while (nextSeparator('}'));
+            } else {
+                next();
+            }
+            stats.append(timestamp, all, newTx, ignored, invalid, requested);
+        } while (nextSeparator(']'));
+    }
+
+    private boolean tokenEquals(final String expected) {
+        if (token.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (token.charAt(i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if a ',' follows, {@code false} if the closing bracket follows.
+     * */
+    private boolean nextSeparator(final char close) throws IOException {
+        final char c = nextNonWhitespace();
+        if (c == ',') {
+            return true;
+        }
+        if (c == close) {
+            return false;
+        }
+        throw syntaxError("expected ',' or '" + close + "' but found '" + c + "'");
+    }
+
+    private void readString() throws IOException {
+        expect('"');
+        token.setLength(0);
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = next();
+                switch (c) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            code = (code << 4) | Character.digit(next(), 16);
+                        }
+                        c = (char) code;
+                        break;
+                    default:
+                        // '"', '\\' and '/' stand for themselves
+                }
+            }
+            token.append(c);
+        }
+    }
+
+    private long readLong() throws IOException {
+        char c = peekNonWhitespace();
+        if (c == 'n') {
+            skipValue();
+            return 0;
+        }
+        boolean negative = false;
+        if (c == '-') {
+            negative = true;
+            next();
+        }
+        long value = 0;
+        boolean integral = true;
+        while (position < limit || fill()) {
+            c = buffer[position];
+            if (c >= '0' && c <= '9') {
+                if (integral) {
+                    value = value * 10 + (c - '0');
+                }
+                position++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                // fractions and exponents are dropped, Ict only reports integral stats
+                integral = false;
+                position++;
+            } else {
+                break;
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private void skipValue() throws IOException {
+        final char c = peekNonWhitespace();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            boolean inString = false;
+            do {
+                final char d = next();
+                if (inString) {
+                    if (d == '\\') {
+                        next();
+                    } else if (d == '"') {
+                        inString = false;
+                    }
+                } else if (d == '"') {
+                    inString = true;
+                } else if (d == '{' || d == '[') {
+                    depth++;
+                } else if (d == '}' || d == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            // number, true, false or null
+            while ((position < limit || fill()) && ",}] \t\r\n".indexOf(buffer[position]) < 0) {
+                position++;
+            }
+        }
+    }
+
+    private void expect(final char expected) throws IOException {
+        final char c = nextNonWhitespace();
+        if (c != expected) {
+            throw syntaxError("expected '" + expected + "' but found '" + c + "'");
+        }
+    }
+
+    private char peekNonWhitespace() throws IOException {
+        final char c = nextNonWhitespace();
+        position--;
+        return c;
+    }
+
+    private char nextNonWhitespace() throws IOException {
+        char c;
+        do {
+            c = next();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private char next() throws IOException {
+        if (position >= limit && !fill()) {
+            throw syntaxError("unexpected end of input");
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        final int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private static IOException syntaxError(final String message) {
+        return new IOException("Malformed /getNeighbors response: " + message);
+    }
+}
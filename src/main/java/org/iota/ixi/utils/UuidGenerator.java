@@ -3,9 +3,36 @@ package org.iota.ixi.utils;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.iota.ict.utils.Trytes;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class UuidGenerator {
 
+    private static final int CACHE_SIZE = 1024;
+
+    // least recently used uuids are evicted first
+    private static final Map<String, String> cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     public static String generate(final String publicAddress) {
         return Trytes.fromAscii(DigestUtils.sha1Hex(publicAddress));
     }
+
+    /**
+     * Like {@link #generate(String)}, but remembers the uuids of the last {@value #CACHE_SIZE} addresses.
+     * */
+    public static String getOrGenerate(final String publicAddress) {
+        synchronized (cache) {
+            String uuid = cache.get(publicAddress);
+            if (uuid == null) {
+                uuid = generate(publicAddress);
+                cache.put(publicAddress, uuid);
+            }
+            return uuid;
+        }
+    }
 }
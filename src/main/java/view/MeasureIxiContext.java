@@ -1,21 +1,68 @@
 package view;
 
+import org.iota.ict.eee.Environment;
+import org.iota.ict.ixi.Ixi;
 import org.iota.ict.ixi.context.ConfigurableIxiContext;
+import org.iota.ict.network.gossip.GossipListener;
+import org.iota.ixi.fleet.FleetMonitor;
+import org.iota.ixi.fleet.IctNode;
+import org.iota.ixi.fleet.NodeSnapshot;
+import org.iota.ixi.gossip.GossipSettings;
+import org.iota.ixi.gossip.OverflowPolicy;
+import org.iota.ixi.gossip.ShardedGossipProcessor;
+import org.iota.ixi.jfr.Events;
+import org.iota.ixi.load.LoadGenerator;
+import org.iota.ixi.load.LoadProfile;
+import org.iota.ixi.load.LoadSettings;
+import org.iota.ixi.metrics.DuplicateFilter;
+import org.iota.ixi.metrics.GossipCounters;
+import org.iota.ixi.metrics.GossipSampler;
+import org.iota.ixi.metrics.GossipSnapshot;
+import org.iota.ixi.metrics.HeavyHitters;
+import org.iota.ixi.metrics.Meter;
+import org.iota.ixi.metrics.MetricsServer;
+import org.iota.ixi.metrics.OpenMetricsWriter;
+import org.iota.ixi.metrics.TagFilter;
+import org.iota.ixi.model.ContextSnapshot;
+import org.iota.ixi.model.IctNeighborStats;
 import org.iota.ixi.model.Neighbor;
+import org.iota.ixi.model.NeighborRegistry;
+import org.iota.ixi.model.SyncSchedule;
+import org.iota.ixi.probe.ProbeTracker;
+import org.iota.ixi.report.Reporter;
+import org.iota.ixi.store.MeasurementStore;
+import org.iota.ixi.utils.ChangeDetector;
+import org.iota.ixi.utils.Constants;
 import org.iota.ixi.utils.IctRestCaller;
+import org.iota.ixi.utils.NamedThreadFactory;
 import org.iota.ixi.utils.UuidGenerator;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.LinkedList;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public class MeasureIxiContext extends ConfigurableIxiContext {
+public class MeasureIxiContext extends ConfigurableIxiContext implements MetricsServer.Source {
 
-    private static final Logger log = LogManager.getLogger("ReportIxiContext");
+    private static final Logger log = LogManager.getLogger("MeasureIxi/Context");
 
     // Property names
     private static final String ICT_REST_PORT = "Ict REST API Port";
@@ -25,6 +72,28 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
     private static final String NEIGHBOR_ADDRESS = "_address";
     private static final String NEIGHBOR_PUBLIC_ADDRESS = "publicAddress";
     private static final String PUBLIC_ADDRESS = "Public address";
+    private static final String MAX_NEIGHBORS = "Max neighbors";
+    private static final String LOAD_TPS = "Load generator TPS";
+    private static final String LOAD_PROFILE = "Load generator profile";
+    private static final String LOAD_PERIOD = "Load generator period (s)";
+    private static final String LOAD_MIN_MESSAGE_SIZE = "Load generator min message size";
+    private static final String LOAD_MAX_MESSAGE_SIZE = "Load generator max message size";
+    private static final String LOAD_THREADS = "Load generator threads";
+    private static final String GOSSIP_WORKERS = "Gossip workers";
+    private static final String GOSSIP_QUEUE_CAPACITY = "Gossip queue capacity";
+    private static final String GOSSIP_OVERFLOW_POLICY = "Gossip overflow policy";
+    private static final String GOSSIP_SAMPLING = "Gossip sampling";
+    private static final String GOSSIP_SAMPLE_RATE = "Gossip sample rate";
+    private static final String GOSSIP_SAMPLE_TARGET_TPS = "Gossip sample target TPS";
+    private static final String HEAVY_HITTERS_K = "Heavy hitters K";
+    private static final String REGOSSIP_FILTER = "Re-gossip filter";
+    private static final String MONITORED_NODES = "Monitored nodes";
+    private static final String METRICS_BIND_ADDRESS = "Metrics bind address";
+    private static final String NEIGHBORS_SYNC_AGE = "_Neighbors synced ms ago";
+    private static final String NEIGHBORS_STALE = "_Neighbors stale";
+
+    // Ict REST API routes fetched by syncIct(), in the order their responses are applied
+    private static final String[] SYNC_ROUTES = {"getConfig", "getInfo", "getNeighbors"};
 
     // Property defaults
     private static final String DEFAULT_ICT_VERSION = "";
@@ -35,6 +104,31 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
     private static final String DEFAULT_NAME = "YOUR_NAME (ict-0)";
     private static final JSONArray DEFAULT_NEIGHBORS = new JSONArray();
     private static final String DEFAULT_PUBLIC_ADDRESS = "your.public.ict.address:1337";
+    private static final int DEFAULT_MAX_NEIGHBORS = 3;
+    private static final double DEFAULT_LOAD_TPS = 0;
+    private static final String DEFAULT_LOAD_PROFILE = LoadProfile.CONSTANT.name();
+    private static final int DEFAULT_LOAD_PERIOD = 60;
+    private static final int DEFAULT_LOAD_MIN_MESSAGE_SIZE = 0;
+    private static final int DEFAULT_LOAD_MAX_MESSAGE_SIZE = 64;
+    private static final int DEFAULT_LOAD_THREADS = 1;
+    private static final int MAX_LOAD_THREADS = 64;
+    private static final int DEFAULT_GOSSIP_WORKERS = GossipSettings.DEFAULT.getWorkers();
+    private static final int DEFAULT_GOSSIP_QUEUE_CAPACITY = GossipSettings.DEFAULT.getCapacity();
+    private static final String DEFAULT_GOSSIP_OVERFLOW_POLICY = GossipSettings.DEFAULT.getPolicy().name();
+    private static final int MAX_GOSSIP_WORKERS = 64;
+    private static final String DEFAULT_GOSSIP_SAMPLING = GossipSampler.Mode.OFF.name();
+    private static final double DEFAULT_GOSSIP_SAMPLE_RATE = 1;
+    private static final double DEFAULT_GOSSIP_SAMPLE_TARGET_TPS = 500;
+    private static final int DEFAULT_HEAVY_HITTERS_K = 10;
+    // Ict gossips no transaction twice, so the filter mostly counts its own false positives
+    private static final boolean DEFAULT_REGOSSIP_FILTER = false;
+    private static final JSONArray DEFAULT_MONITORED_NODES = new JSONArray();
+    // metrics are served to local scrapers only unless configured otherwise
+    private static final String DEFAULT_METRICS_BIND_ADDRESS = "127.0.0.1";
+    private static final long MIN_SYNC_PERIOD = 1000;
+    // the newest completed stats record is the last or second to last one, see NeighborRates
+    private static final int STATS_TAIL = 2;
+    private static final String[] SHARD_LABELS = shardLabels(MAX_GOSSIP_WORKERS);
 
     // Context properties
     private String ictVersion = DEFAULT_ICT_VERSION;
@@ -43,10 +137,40 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
     private String ictRestPassword = DEFAULT_ICT_REST_PASSWORD;
     private String name = DEFAULT_NAME;
     private String publicAddress = DEFAULT_PUBLIC_ADDRESS;
+    private int maxNeighbors = DEFAULT_MAX_NEIGHBORS;
+    private LoadSettings loadSettings = LoadSettings.DISABLED;
+    private GossipSettings gossipSettings = GossipSettings.DEFAULT;
+    private List<IctNode> monitoredNodes = new ArrayList<>();
+    private String metricsBindAddress = DEFAULT_METRICS_BIND_ADDRESS;
 
     // Non-configurable properties
     private String uuid = null;
-    private final List<Neighbor> neighbors = new LinkedList<>();
+    private final NeighborRegistry neighbors = new NeighborRegistry();
+    // histories replayed from the store for neighbors which are not registered, see newNeighbor(String)
+    private final ConcurrentMap<String, Neighbor> replayedNeighbors = new ConcurrentHashMap<>();
+    private final GossipCounters gossipCounters = new GossipCounters();
+    private final GossipSampler gossipSampler = new GossipSampler();
+    private final Meter inboundMeter = new Meter();
+    private final Meter outboundMeter = new Meter();
+    private final HeavyHitters addressHitters = new HeavyHitters(Constants.HEAVY_HITTER_WIDTH, Constants.HEAVY_HITTER_CANDIDATES, DEFAULT_HEAVY_HITTERS_K);
+    private final HeavyHitters tagHitters = new HeavyHitters(Constants.HEAVY_HITTER_WIDTH, Constants.HEAVY_HITTER_CANDIDATES, DEFAULT_HEAVY_HITTERS_K);
+    // allocated while the re-gossip filter is enabled only
+    private volatile DuplicateFilter duplicateFilter = null;
+    private final TagFilter probeFilter = new TagFilter(Constants.TAG);
+    private final ProbeTracker probeTracker = new ProbeTracker(Constants.PROBE_WINDOW);
+    private volatile ContextSnapshot snapshot = ContextSnapshot.EMPTY;
+    private final ChangeDetector neighborChanges = new ChangeDetector();
+    private final SyncSchedule syncSchedule = new SyncSchedule();
+    private volatile List<IctNeighborStats> lastNeighborStats = null;
+    private volatile long nextCompletion = Long.MAX_VALUE;
+    private volatile ScheduledExecutorService syncScheduler = null;
+    private volatile MeasurementStore store = null;
+    private volatile Reporter reporter = null;
+    private volatile LoadGenerator loadGenerator = null;
+    private volatile MetricsServer metricsServer = null;
+    private volatile ShardedGossipProcessor gossipProcessor = null;
+    private volatile FleetMonitor fleetMonitor = null;
+    private final ExecutorService syncExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("MeasureIxi-sync"));
 
     static {
         DEFAULT_CONFIGURATION.put(ICT_REST_PORT, DEFAULT_ICT_REST_PORT);
@@ -54,6 +178,31 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
         DEFAULT_CONFIGURATION.put(NAME, DEFAULT_NAME);
         DEFAULT_CONFIGURATION.put(NEIGHBORS, DEFAULT_NEIGHBORS.toString());
         DEFAULT_CONFIGURATION.put(PUBLIC_ADDRESS, DEFAULT_PUBLIC_ADDRESS);
+        DEFAULT_CONFIGURATION.put(MAX_NEIGHBORS, DEFAULT_MAX_NEIGHBORS);
+        DEFAULT_CONFIGURATION.put(LOAD_TPS, DEFAULT_LOAD_TPS);
+        DEFAULT_CONFIGURATION.put(LOAD_PROFILE, DEFAULT_LOAD_PROFILE);
+        DEFAULT_CONFIGURATION.put(LOAD_PERIOD, DEFAULT_LOAD_PERIOD);
+        DEFAULT_CONFIGURATION.put(LOAD_MIN_MESSAGE_SIZE, DEFAULT_LOAD_MIN_MESSAGE_SIZE);
+        DEFAULT_CONFIGURATION.put(LOAD_MAX_MESSAGE_SIZE, DEFAULT_LOAD_MAX_MESSAGE_SIZE);
+        DEFAULT_CONFIGURATION.put(LOAD_THREADS, DEFAULT_LOAD_THREADS);
+        DEFAULT_CONFIGURATION.put(GOSSIP_WORKERS, DEFAULT_GOSSIP_WORKERS);
+        DEFAULT_CONFIGURATION.put(GOSSIP_QUEUE_CAPACITY, DEFAULT_GOSSIP_QUEUE_CAPACITY);
+        DEFAULT_CONFIGURATION.put(GOSSIP_OVERFLOW_POLICY, DEFAULT_GOSSIP_OVERFLOW_POLICY);
+        DEFAULT_CONFIGURATION.put(GOSSIP_SAMPLING, DEFAULT_GOSSIP_SAMPLING);
+        DEFAULT_CONFIGURATION.put(GOSSIP_SAMPLE_RATE, DEFAULT_GOSSIP_SAMPLE_RATE);
+        DEFAULT_CONFIGURATION.put(GOSSIP_SAMPLE_TARGET_TPS, DEFAULT_GOSSIP_SAMPLE_TARGET_TPS);
+        DEFAULT_CONFIGURATION.put(HEAVY_HITTERS_K, DEFAULT_HEAVY_HITTERS_K);
+        DEFAULT_CONFIGURATION.put(REGOSSIP_FILTER, DEFAULT_REGOSSIP_FILTER);
+        DEFAULT_CONFIGURATION.put(MONITORED_NODES, DEFAULT_MONITORED_NODES.toString());
+        DEFAULT_CONFIGURATION.put(METRICS_BIND_ADDRESS, DEFAULT_METRICS_BIND_ADDRESS);
+    }
+
+    private static String[] shardLabels(final int count) {
+        final String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = String.valueOf(i);
+        }
+        return labels;
     }
 
     public MeasureIxiContext() {
@@ -62,34 +211,296 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
     }
 
 
+    /**
+     * Reads the neighbors published by the background sync, see {@link #startSync()}. Never calls Ict.
+     * */
     @Override
     public JSONObject getConfiguration() {
-        syncIctNeighbors();
-
-        final List<JSONObject> jsonNeighbor = new LinkedList<>();
-        for (Neighbor neighbor : getNeighbors()) {
-            jsonNeighbor.add(new JSONObject()
-                    .put(NEIGHBOR_ADDRESS, neighbor.getAddress())
-                    .put(NEIGHBOR_PUBLIC_ADDRESS, neighbor.getPublicAddress()));
-        }
-        final JSONArray jsonNeighbors = new JSONArray(jsonNeighbor);
+        final ContextSnapshot snapshot = this.snapshot;
+        final long now = System.currentTimeMillis();
 
         final JSONObject configuration = new JSONObject()
                 .put(ICT_REST_PORT, getIctRestPort())
                 .put(ICT_REST_PASSWORD, getIctRestPassword())
                 .put(NAME, getName())
-                .put(NEIGHBORS, jsonNeighbors.toString())
-                .put(PUBLIC_ADDRESS, getPublicAddress());
+                .put(NEIGHBORS, snapshot.getNeighbors())
+                .put(PUBLIC_ADDRESS, getPublicAddress())
+                .put(MAX_NEIGHBORS, getMaxNeighbors())
+                .put(LOAD_TPS, loadSettings.getTargetTps())
+                .put(LOAD_PROFILE, loadSettings.getProfile().name())
+                .put(LOAD_PERIOD, TimeUnit.MILLISECONDS.toSeconds(loadSettings.getPeriod()))
+                .put(LOAD_MIN_MESSAGE_SIZE, loadSettings.getMinMessageSize())
+                .put(LOAD_MAX_MESSAGE_SIZE, loadSettings.getMaxMessageSize())
+                .put(LOAD_THREADS, loadSettings.getThreads())
+                .put(GOSSIP_WORKERS, gossipSettings.getWorkers())
+                .put(GOSSIP_QUEUE_CAPACITY, gossipSettings.getCapacity())
+                .put(GOSSIP_OVERFLOW_POLICY, gossipSettings.getPolicy().name())
+                .put(GOSSIP_SAMPLING, gossipSampler.getMode().name())
+                .put(GOSSIP_SAMPLE_RATE, gossipSampler.getFixedRate())
+                .put(GOSSIP_SAMPLE_TARGET_TPS, gossipSampler.getTargetTps())
+                .put(HEAVY_HITTERS_K, addressHitters.getK())
+                .put(REGOSSIP_FILTER, isRegossipFilterEnabled())
+                .put(MONITORED_NODES, monitoredNodesToJSON().toString())
+                .put(METRICS_BIND_ADDRESS, getMetricsBindAddress())
+                .put(NEIGHBORS_SYNC_AGE, snapshot.getAge(now))
+                .put(NEIGHBORS_STALE, snapshot.isStale(now, getMaxSnapshotAge()));
 
         return configuration;
     }
 
+    public ContextSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void publishSnapshot(final boolean synced) {
+        final JSONArray jsonNeighbors = new JSONArray();
+        for (Neighbor neighbor : getNeighbors()) {
+            jsonNeighbors.put(new JSONObject()
+                    .put(NEIGHBOR_ADDRESS, neighbor.getAddress())
+                    .put(NEIGHBOR_PUBLIC_ADDRESS, neighbor.getPublicAddress()));
+        }
+        snapshot = synced
+                ? new ContextSnapshot(jsonNeighbors.toString(), System.currentTimeMillis())
+                : snapshot.withNeighbors(jsonNeighbors.toString());
+    }
+
+    /**
+     * Starts syncing with Ict in the background, aligned to the Ict rounds by the {@link SyncSchedule}. Does nothing
+     * if already started.
+     * */
+    public synchronized void startSync() {
+        if (syncScheduler != null) {
+            return;
+        }
+        syncScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("MeasureIxi-refresh"));
+        syncScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    syncIct();
+                } catch (RuntimeException e) {
+                    recordFailedNeighborSync();
+                    log.error("Background sync with Ict failed: {}", e.toString());
+                }
+                // the round duration may have changed with this sync
+                final ScheduledExecutorService scheduler = syncScheduler;
+                if (scheduler != null && !scheduler.isShutdown()) {
+                    scheduler.schedule(this, syncSchedule.nextDelay(System.currentTimeMillis(), getIctRoundDuration()), TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+        syncScheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                tickMeters();
+            }
+        }, Meter.TICK_SECONDS, Meter.TICK_SECONDS, TimeUnit.SECONDS);
+        // lets the sample rate recover when traffic drops too low for the sampler to tune itself
+        syncScheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                gossipSampler.tune();
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+        // persists matched probes off the gossip thread
+        syncScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                probeTracker.flush();
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+        syncScheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                addressHitters.publish();
+                tagHitters.publish();
+            }
+        }, Constants.HEAVY_HITTER_WINDOW, Constants.HEAVY_HITTER_WINDOW, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the measurement history in {@link Constants#MEASURE_IXI_HISTORY_DIRECTORY}, replays it into the neighbor
+     * histories and probe latencies and persists all further measurements. Replay never registers neighbors: the
+     * history of an address which is not a neighbor right now is kept aside until a sync or the configuration
+     * adds that neighbor again.
+     * */
+    public synchronized void openStore() {
+        if (store != null) {
+            return;
+        }
+        final MeasurementStore store;
+        try {
+            store = new MeasurementStore(new File(Constants.MEASURE_IXI_HISTORY_DIRECTORY),
+                    Constants.HISTORY_SEGMENT_SIZE, Constants.HISTORY_MAX_SEGMENTS);
+            store.replay(new MeasurementStore.Visitor() {
+                @Override
+                public void onNeighborStats(String address, long timestamp, long all, long newTx, long ignored, long invalid, long requested) {
+                    Neighbor neighbor = getNeighborByStaticAddress(address);
+                    if (neighbor == null) {
+                        neighbor = replayedNeighbors.get(address);
+                        if (neighbor == null) {
+                            neighbor = new Neighbor(address);
+                            replayedNeighbors.put(address, neighbor);
+                        }
+                    }
+                    // the store keeps no round lengths, the rounds replayed are assumed to be as long as the current ones
+                    neighbor.updateStats(timestamp, getIctRoundDuration(), (int) all, (int) newTx, (int) ignored, (int) invalid, (int) requested);
+                }
+
+                @Override
+                public void onProbe(long timestamp, long sequence, long roundTripNanos) {
+                    probeTracker.recordRoundTrip(roundTripNanos);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Failed to open measurement history, measurements will not be persisted: {}", e.toString());
+            return;
+        }
+        this.store = store;
+        probeTracker.setStore(store);
+    }
+
+    public synchronized void closeStore() {
+        if (store != null) {
+            probeTracker.flush();
+            probeTracker.setStore(null);
+            store.close();
+            store = null;
+        }
+    }
+
+    /**
+     * Starts sending a report to {@link Constants#RCS_REPORT_ENDPOINT} after every neighbor sync.
+     * */
+    public synchronized void startReporting() {
+        if (reporter != null) {
+            return;
+        }
+        reporter = new Reporter(Constants.RCS_REPORT_ENDPOINT, new File(Constants.MEASURE_IXI_SPILL_DIRECTORY),
+                Constants.REPORT_QUEUE_CAPACITY, (int) TimeUnit.SECONDS.toMillis(Constants.REQUEST_TIMEOUT));
+        reporter.start();
+    }
+
+    public synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.stop();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Starts submitting load with the configured {@link LoadSettings}. Idle as long as the target TPS is 0.
+     * */
+    public synchronized void startLoadGenerator(final Ixi ixi) {
+        if (loadGenerator != null) {
+            return;
+        }
+        loadGenerator = new LoadGenerator(ixi);
+        loadGenerator.configure(loadSettings);
+        loadGenerator.start();
+    }
+
+    public synchronized void stopLoadGenerator() {
+        if (loadGenerator != null) {
+            loadGenerator.stop();
+            loadGenerator = null;
+        }
+    }
+
+    /**
+     * Wraps the listener into a {@link ShardedGossipProcessor} listening to the Ict gossip. Events are passed to the
+     * listener directly until {@link #startGossipProcessing()} is called.
+     * @return the listener to register with Ict
+     * */
+    public synchronized ShardedGossipProcessor createGossipProcessor(final GossipListener listener) {
+        if (gossipProcessor == null) {
+            gossipProcessor = new ShardedGossipProcessor(listener, new Environment(Constants.GOSSIP_ENVIRONMENT));
+            gossipProcessor.configure(gossipSettings);
+        }
+        return gossipProcessor;
+    }
+
+    public synchronized void startGossipProcessing() {
+        if (gossipProcessor != null) {
+            gossipProcessor.start();
+        }
+    }
+
+    public synchronized void stopGossipProcessing() {
+        if (gossipProcessor != null) {
+            gossipProcessor.stop();
+        }
+    }
+
+    /**
+     * Starts serving {@link #writeMetrics(OpenMetricsWriter)} on {@link Constants#METRICS_PORT} of the configured
+     * {@link #getMetricsBindAddress() bind address}.
+     * */
+    public synchronized void startMetrics() {
+        if (metricsServer != null) {
+            return;
+        }
+        final MetricsServer server = new MetricsServer(this, metricsBindAddress, Constants.METRICS_PORT);
+        try {
+            server.start();
+            metricsServer = server;
+        } catch (IOException e) {
+            log.error("Failed to serve metrics on {}:{}: {}", metricsBindAddress, Constants.METRICS_PORT, e.toString());
+        }
+    }
+
+    public synchronized void stopMetrics() {
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
+        }
+    }
+
+    /**
+     * Starts polling the REST APIs of the {@link #getMonitoredNodes() monitored nodes}. Idle as long as there are none.
+     * */
+    public synchronized void startFleetMonitor() {
+        if (fleetMonitor != null) {
+            return;
+        }
+        fleetMonitor = new FleetMonitor(STATS_TAIL, (int) TimeUnit.SECONDS.toMillis(Constants.REQUEST_TIMEOUT), DEFAULT_ICT_ROUND_DURATION);
+        fleetMonitor.configure(monitoredNodes);
+        fleetMonitor.start();
+    }
+
+    public synchronized void stopFleetMonitor() {
+        if (fleetMonitor != null) {
+            fleetMonitor.stop();
+            fleetMonitor = null;
+        }
+    }
+
+    public synchronized void stopSync() {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+            syncScheduler = null;
+        }
+    }
+
+    public long getSyncPeriod() {
+        return Math.max(MIN_SYNC_PERIOD, getIctRoundDuration());
+    }
+
+    private long getMaxSnapshotAge() {
+        // tolerate a couple of missed syncs before flagging the neighbors as stale
+        return 3 * getSyncPeriod();
+    }
+
     @Override
     protected void validateConfiguration(final JSONObject newConfiguration) {
         validateName(newConfiguration);
         validateNeighbors(newConfiguration);
         validateIctRestConnectivity(newConfiguration);
         validatePublicAddress(newConfiguration);
+        validateLoadSettings(newConfiguration);
+        validateGossipSettings(newConfiguration);
+        validateMonitoredNodes(newConfiguration);
+        validateMetricsBindAddress(newConfiguration);
     }
 
     @Override
@@ -100,9 +511,34 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
 
         if (configuration.has(PUBLIC_ADDRESS)) {
             setPublicAddress(configuration.getString(PUBLIC_ADDRESS));
-            setUuid(UuidGenerator.generate(configuration.getString(PUBLIC_ADDRESS)));
+            setUuid(UuidGenerator.getOrGenerate(configuration.getString(PUBLIC_ADDRESS)));
         }
 
+        // Configurations of older versions have no neighbor limit, no load generator and no gossip settings
+        setMaxNeighbors(configuration.has(MAX_NEIGHBORS) ? configuration.getInt(MAX_NEIGHBORS) : DEFAULT_MAX_NEIGHBORS);
+        setLoadSettings(new LoadSettings(
+                configuration.has(LOAD_TPS) ? configuration.getDouble(LOAD_TPS) : DEFAULT_LOAD_TPS,
+                LoadProfile.valueOf(configuration.has(LOAD_PROFILE) ? configuration.getString(LOAD_PROFILE).toUpperCase() : DEFAULT_LOAD_PROFILE),
+                TimeUnit.SECONDS.toMillis(configuration.has(LOAD_PERIOD) ? configuration.getInt(LOAD_PERIOD) : DEFAULT_LOAD_PERIOD),
+                configuration.has(LOAD_MIN_MESSAGE_SIZE) ? configuration.getInt(LOAD_MIN_MESSAGE_SIZE) : DEFAULT_LOAD_MIN_MESSAGE_SIZE,
+                configuration.has(LOAD_MAX_MESSAGE_SIZE) ? configuration.getInt(LOAD_MAX_MESSAGE_SIZE) : DEFAULT_LOAD_MAX_MESSAGE_SIZE,
+                configuration.has(LOAD_THREADS) ? configuration.getInt(LOAD_THREADS) : DEFAULT_LOAD_THREADS));
+        setGossipSettings(new GossipSettings(
+                configuration.has(GOSSIP_WORKERS) ? configuration.getInt(GOSSIP_WORKERS) : DEFAULT_GOSSIP_WORKERS,
+                configuration.has(GOSSIP_QUEUE_CAPACITY) ? configuration.getInt(GOSSIP_QUEUE_CAPACITY) : DEFAULT_GOSSIP_QUEUE_CAPACITY,
+                OverflowPolicy.valueOf(configuration.has(GOSSIP_OVERFLOW_POLICY) ? configuration.getString(GOSSIP_OVERFLOW_POLICY).toUpperCase() : DEFAULT_GOSSIP_OVERFLOW_POLICY)));
+        final int heavyHittersK = configuration.has(HEAVY_HITTERS_K) ? configuration.getInt(HEAVY_HITTERS_K) : DEFAULT_HEAVY_HITTERS_K;
+        addressHitters.setK(heavyHittersK);
+        tagHitters.setK(heavyHittersK);
+        setRegossipFilterEnabled(configuration.has(REGOSSIP_FILTER) ? configuration.getBoolean(REGOSSIP_FILTER) : DEFAULT_REGOSSIP_FILTER);
+        gossipSampler.configure(
+                GossipSampler.Mode.valueOf(configuration.has(GOSSIP_SAMPLING) ? configuration.getString(GOSSIP_SAMPLING).toUpperCase() : DEFAULT_GOSSIP_SAMPLING),
+                configuration.has(GOSSIP_SAMPLE_RATE) ? configuration.getDouble(GOSSIP_SAMPLE_RATE) : DEFAULT_GOSSIP_SAMPLE_RATE,
+                configuration.has(GOSSIP_SAMPLE_TARGET_TPS) ? configuration.getDouble(GOSSIP_SAMPLE_TARGET_TPS) : DEFAULT_GOSSIP_SAMPLE_TARGET_TPS);
+
+        setMonitoredNodes(parseMonitoredNodes(configuration));
+        setMetricsBindAddress(configuration.has(METRICS_BIND_ADDRESS) ? configuration.getString(METRICS_BIND_ADDRESS) : DEFAULT_METRICS_BIND_ADDRESS);
+
         // Get new neighbor changes
         JSONArray newNeighborConfiguration = null;
         if (configuration.get(NEIGHBORS) instanceof String) {
@@ -121,8 +557,7 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
 
             Neighbor neighbor = getNeighborByStaticAddress(_address);
             if (neighbor == null) {
-                neighbor = new Neighbor(_address);
-                neighbors.add(neighbor);
+                neighbor = neighbors.addIfAbsent(newNeighbor(_address));
             }
 
             if (jsonNeighbor.has(NEIGHBOR_PUBLIC_ADDRESS)) {
@@ -132,6 +567,7 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
                 }
             }
         }
+        publishSnapshot(false);
     }
 
     private void validateIctRestConnectivity(final JSONObject newConfiguration) {
@@ -181,6 +617,159 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
         }
     }
 
+    private void validateLoadSettings(final JSONObject newConfiguration) {
+        if (newConfiguration.has(LOAD_TPS) && newConfiguration.getDouble(LOAD_TPS) < 0) {
+            throw new IllegalPropertyException(LOAD_TPS, "must not be negative, 0 disables the load generator");
+        }
+        if (newConfiguration.has(LOAD_PROFILE)) {
+            try {
+                LoadProfile.valueOf(newConfiguration.getString(LOAD_PROFILE).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalPropertyException(LOAD_PROFILE, "expected one of " + Arrays.toString(LoadProfile.values()));
+            }
+        }
+        if (newConfiguration.has(LOAD_PERIOD) && newConfiguration.getInt(LOAD_PERIOD) < 1) {
+            throw new IllegalPropertyException(LOAD_PERIOD, "must be at least 1 second");
+        }
+        final int minMessageSize = newConfiguration.has(LOAD_MIN_MESSAGE_SIZE) ? newConfiguration.getInt(LOAD_MIN_MESSAGE_SIZE) : DEFAULT_LOAD_MIN_MESSAGE_SIZE;
+        final int maxMessageSize = newConfiguration.has(LOAD_MAX_MESSAGE_SIZE) ? newConfiguration.getInt(LOAD_MAX_MESSAGE_SIZE) : DEFAULT_LOAD_MAX_MESSAGE_SIZE;
+        if (minMessageSize < 0 || minMessageSize > maxMessageSize) {
+            throw new IllegalPropertyException(LOAD_MIN_MESSAGE_SIZE, "must be between 0 and the max message size");
+        }
+        if (maxMessageSize > LoadGenerator.MAX_MESSAGE_SIZE) {
+            throw new IllegalPropertyException(LOAD_MAX_MESSAGE_SIZE, "a transaction holds at most " + LoadGenerator.MAX_MESSAGE_SIZE + " characters");
+        }
+        if (newConfiguration.has(LOAD_THREADS)) {
+            final int threads = newConfiguration.getInt(LOAD_THREADS);
+            if (threads < 1 || threads > MAX_LOAD_THREADS) {
+                throw new IllegalPropertyException(LOAD_THREADS, "must be between 1 and " + MAX_LOAD_THREADS);
+            }
+        }
+    }
+
+    private void validateGossipSettings(final JSONObject newConfiguration) {
+        if (newConfiguration.has(GOSSIP_WORKERS)) {
+            final int workers = newConfiguration.getInt(GOSSIP_WORKERS);
+            if (workers < 1 || workers > MAX_GOSSIP_WORKERS) {
+                throw new IllegalPropertyException(GOSSIP_WORKERS, "must be between 1 and " + MAX_GOSSIP_WORKERS);
+            }
+        }
+        if (newConfiguration.has(GOSSIP_QUEUE_CAPACITY) && newConfiguration.getInt(GOSSIP_QUEUE_CAPACITY) < 2) {
+            throw new IllegalPropertyException(GOSSIP_QUEUE_CAPACITY, "must be at least 2");
+        }
+        if (newConfiguration.has(HEAVY_HITTERS_K)) {
+            final int k = newConfiguration.getInt(HEAVY_HITTERS_K);
+            if (k < 1 || k > Constants.HEAVY_HITTER_CANDIDATES) {
+                throw new IllegalPropertyException(HEAVY_HITTERS_K, "must be between 1 and " + Constants.HEAVY_HITTER_CANDIDATES);
+            }
+        }
+        if (newConfiguration.has(REGOSSIP_FILTER)) {
+            try {
+                newConfiguration.getBoolean(REGOSSIP_FILTER);
+            } catch (JSONException e) {
+                throw new IllegalPropertyException(REGOSSIP_FILTER, "expected true or false");
+            }
+        }
+        if (newConfiguration.has(GOSSIP_SAMPLING)) {
+            try {
+                GossipSampler.Mode.valueOf(newConfiguration.getString(GOSSIP_SAMPLING).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalPropertyException(GOSSIP_SAMPLING, "expected one of " + Arrays.toString(GossipSampler.Mode.values()));
+            }
+        }
+        if (newConfiguration.has(GOSSIP_SAMPLE_RATE)) {
+            final double rate = newConfiguration.getDouble(GOSSIP_SAMPLE_RATE);
+            if (!(rate > 0 && rate <= 1)) {
+                throw new IllegalPropertyException(GOSSIP_SAMPLE_RATE, "must be greater than 0 and at most 1");
+            }
+        }
+        if (newConfiguration.has(GOSSIP_SAMPLE_TARGET_TPS) && !(newConfiguration.getDouble(GOSSIP_SAMPLE_TARGET_TPS) > 0)) {
+            throw new IllegalPropertyException(GOSSIP_SAMPLE_TARGET_TPS, "must be positive");
+        }
+        if (newConfiguration.has(GOSSIP_OVERFLOW_POLICY)) {
+            try {
+                OverflowPolicy.valueOf(newConfiguration.getString(GOSSIP_OVERFLOW_POLICY).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalPropertyException(GOSSIP_OVERFLOW_POLICY, "expected one of " + Arrays.toString(OverflowPolicy.values()));
+            }
+        }
+    }
+
+    private void validateMonitoredNodes(final JSONObject newConfiguration) {
+        if (!newConfiguration.has(MONITORED_NODES)) {
+            return;
+        }
+        final JSONArray array;
+        try {
+            array = newConfiguration.get(MONITORED_NODES) instanceof JSONArray
+                    ? newConfiguration.getJSONArray(MONITORED_NODES)
+                    : new JSONArray(newConfiguration.getString(MONITORED_NODES));
+        } catch (JSONException e) {
+            throw new IllegalPropertyException(MONITORED_NODES, "not a JSON array");
+        }
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            if (!(array.get(i) instanceof JSONObject)) {
+                throw new IllegalPropertyException(MONITORED_NODES, "array element at index " + i + " is not a JSONObject");
+            }
+            final JSONObject node = array.getJSONObject(i);
+            if (!node.has("host") || !(node.get("host") instanceof String) || node.getString("host").isEmpty()) {
+                throw new IllegalPropertyException(MONITORED_NODES, "node at index " + i + " has no host");
+            }
+            if (!node.has("port") || !(node.get("port") instanceof Integer) || node.getInt("port") < 1 || node.getInt("port") > 65535) {
+                throw new IllegalPropertyException(MONITORED_NODES, "node at index " + i + " has no port between 1 and 65535");
+            }
+            if (!node.has("password") || !(node.get("password") instanceof String)) {
+                throw new IllegalPropertyException(MONITORED_NODES, "node at index " + i + " has no password");
+            }
+            final String name = IctNode.fromJSON(node).getName();
+            if (names.contains(name)) {
+                throw new IllegalPropertyException(MONITORED_NODES, "node name '" + name + "' is not unique");
+            }
+            names.add(name);
+        }
+    }
+
+    private void validateMetricsBindAddress(final JSONObject newConfiguration) {
+        if (!newConfiguration.has(METRICS_BIND_ADDRESS)) {
+            return;
+        }
+        if (!(newConfiguration.get(METRICS_BIND_ADDRESS) instanceof String) || newConfiguration.getString(METRICS_BIND_ADDRESS).isEmpty()) {
+            throw new IllegalPropertyException(METRICS_BIND_ADDRESS, "expected an interface address, e.g. 127.0.0.1 or 0.0.0.0 for all");
+        }
+        try {
+            InetAddress.getByName(newConfiguration.getString(METRICS_BIND_ADDRESS));
+        } catch (UnknownHostException e) {
+            throw new IllegalPropertyException(METRICS_BIND_ADDRESS, "unknown host");
+        }
+    }
+
+    private static List<IctNode> parseMonitoredNodes(final JSONObject configuration) {
+        final List<IctNode> nodes = new ArrayList<>();
+        if (!configuration.has(MONITORED_NODES)) {
+            return nodes;
+        }
+        final JSONArray array = configuration.get(MONITORED_NODES) instanceof JSONArray
+                ? configuration.getJSONArray(MONITORED_NODES)
+                : new JSONArray(configuration.getString(MONITORED_NODES));
+        for (int i = 0; i < array.length(); i++) {
+            nodes.add(IctNode.fromJSON(array.getJSONObject(i)));
+        }
+        return nodes;
+    }
+
+    private JSONArray monitoredNodesToJSON() {
+        final JSONArray array = new JSONArray();
+        for (IctNode node : monitoredNodes) {
+            array.put(new JSONObject()
+                    .put("name", node.getName())
+                    .put("host", node.getHost())
+                    .put("port", node.getPort())
+                    .put("password", node.getPassword()));
+        }
+        return array;
+    }
+
     private void validateNeighbors(final JSONObject newConfiguration) {
         if (!newConfiguration.has(NEIGHBORS)) {
             throw new IllegalPropertyException(NEIGHBORS, "not defined");
@@ -191,8 +780,12 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
 
         JSONArray array = new JSONArray(newConfiguration.getString(NEIGHBORS));
 
-        if (array.length() > 3) {
-            throw new IllegalPropertyException(NEIGHBORS, "maximum 3 neighbors allowed");
+        final int maxNeighbors = newConfiguration.has(MAX_NEIGHBORS) ? newConfiguration.getInt(MAX_NEIGHBORS) : DEFAULT_MAX_NEIGHBORS;
+        if (maxNeighbors < 1) {
+            throw new IllegalPropertyException(MAX_NEIGHBORS, "must be at least 1");
+        }
+        if (array.length() > maxNeighbors) {
+            throw new IllegalPropertyException(NEIGHBORS, "maximum " + maxNeighbors + " neighbors allowed");
         }
 
         for (int i = 0; i < array.length(); i++) {
@@ -250,6 +843,80 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
         this.publicAddress = publicAddress;
     }
 
+    public int getMaxNeighbors() {
+        return maxNeighbors;
+    }
+
+    public void setMaxNeighbors(int maxNeighbors) {
+        this.maxNeighbors = maxNeighbors;
+    }
+
+    public LoadSettings getLoadSettings() {
+        return loadSettings;
+    }
+
+    public void setLoadSettings(final LoadSettings loadSettings) {
+        this.loadSettings = loadSettings;
+        final LoadGenerator loadGenerator = this.loadGenerator;
+        if (loadGenerator != null) {
+            loadGenerator.configure(loadSettings);
+            loadGenerator.start();
+        }
+    }
+
+    public GossipSettings getGossipSettings() {
+        return gossipSettings;
+    }
+
+    public void setGossipSettings(final GossipSettings gossipSettings) {
+        this.gossipSettings = gossipSettings;
+        final ShardedGossipProcessor gossipProcessor = this.gossipProcessor;
+        if (gossipProcessor != null) {
+            gossipProcessor.configure(gossipSettings);
+        }
+    }
+
+    /**
+     * @return the other Icts whose REST APIs are polled by the {@link FleetMonitor}
+     * */
+    public List<IctNode> getMonitoredNodes() {
+        return monitoredNodes;
+    }
+
+    public void setMonitoredNodes(final List<IctNode> monitoredNodes) {
+        this.monitoredNodes = monitoredNodes;
+        final FleetMonitor fleetMonitor = this.fleetMonitor;
+        if (fleetMonitor != null) {
+            fleetMonitor.configure(monitoredNodes);
+        }
+    }
+
+    public String getMetricsBindAddress() {
+        return metricsBindAddress;
+    }
+
+    /**
+     * Restarts a running metrics endpoint on the new address.
+     * */
+    public synchronized void setMetricsBindAddress(final String metricsBindAddress) {
+        if (metricsBindAddress.equals(this.metricsBindAddress)) {
+            return;
+        }
+        this.metricsBindAddress = metricsBindAddress;
+        if (metricsServer != null) {
+            stopMetrics();
+            startMetrics();
+        }
+    }
+
+    /**
+     * @return the last poll results of the monitored nodes, empty if the fleet monitor is not running
+     * */
+    public List<NodeSnapshot> getFleetSnapshots() {
+        final FleetMonitor fleetMonitor = this.fleetMonitor;
+        return fleetMonitor != null ? fleetMonitor.getSnapshots() : new ArrayList<NodeSnapshot>();
+    }
+
     public String getUuid() {
         return uuid;
     }
@@ -258,116 +925,573 @@ public class MeasureIxiContext extends ConfigurableIxiContext {
         this.uuid = uuid;
     }
 
+    /**
+     * @return an immutable snapshot of the neighbors.
+     * */
     public List<Neighbor> getNeighbors() {
-        synchronized (this.neighbors) {
-            return new LinkedList<>(this.neighbors);
+        return neighbors.list();
+    }
+
+    public GossipCounters getGossipCounters() {
+        return gossipCounters;
+    }
+
+    public GossipSnapshot getGossipSnapshot() {
+        return gossipCounters.snapshot();
+    }
+
+    /**
+     * @return the re-gossip filter, {@code null} while it is disabled
+     * */
+    public DuplicateFilter getDuplicateFilter() {
+        return duplicateFilter;
+    }
+
+    public boolean isRegossipFilterEnabled() {
+        return duplicateFilter != null;
+    }
+
+    /**
+     * Enabling allocates a new, empty filter. Disabling releases its memory.
+     * */
+    public synchronized void setRegossipFilterEnabled(final boolean enabled) {
+        if (enabled == isRegossipFilterEnabled()) {
+            return;
+        }
+        duplicateFilter = enabled ? new DuplicateFilter(Constants.DUPLICATE_FILTER_MEMORY, Constants.DUPLICATE_FILTER_FALSE_POSITIVES) : null;
+    }
+
+    /**
+     * @return the meter of all received transactions which were not submitted by this Ict
+     * */
+    public Meter getInboundMeter() {
+        return inboundMeter;
+    }
+
+    /**
+     * @return the meter of all transactions submitted by this Ict
+     * */
+    public Meter getOutboundMeter() {
+        return outboundMeter;
+    }
+
+    private void tickMeters() {
+        inboundMeter.tick();
+        outboundMeter.tick();
+    }
+
+    /**
+     * @return the most frequent addresses of received gossip, published every {@link Constants#HEAVY_HITTER_WINDOW} ms
+     * */
+    public HeavyHitters getAddressHitters() {
+        return addressHitters;
+    }
+
+    /**
+     * @return the most frequent tags of received gossip, published every {@link Constants#HEAVY_HITTER_WINDOW} ms
+     * */
+    public HeavyHitters getTagHitters() {
+        return tagHitters;
+    }
+
+    public GossipSampler getGossipSampler() {
+        return gossipSampler;
+    }
+
+    /**
+     * @return the filter which lets only transactions tagged with {@link Constants#TAG} through to the probe tracker.
+     * */
+    public TagFilter getProbeFilter() {
+        return probeFilter;
+    }
+
+    public ProbeTracker getProbeTracker() {
+        return probeTracker;
+    }
+
+    /**
+     * @return the gossip counters, probe and REST latencies measured by this module next to the neighbor stats last pulled from Ict.
+     * */
+    public JSONObject getStatistics() {
+        return getStatistics(true);
+    }
+
+    /**
+     * @param includeFleet whether to include the other Icts polled by the {@link FleetMonitor}
+     * */
+    private JSONObject getStatistics(final boolean includeFleet) {
+        final JSONArray jsonNeighbors = new JSONArray();
+        for (Neighbor neighbor : getNeighbors()) {
+            jsonNeighbors.put(neighbor.toJSON());
+        }
+        // counters of sampled events are up-scaled, mark them as estimates
+        final boolean estimated = gossipSampler.isEstimated();
+        final JSONObject statistics = new JSONObject()
+                .put("gossip", getGossipSnapshot().toJSON().put("estimated", estimated))
+                .put("sampling", gossipSampler.toJSON())
+                .put("traffic", new JSONObject()
+                        .put("inbound", inboundMeter.toJSON())
+                        .put("outbound", outboundMeter.toJSON()))
+                .put("heavy_hitters", new JSONObject()
+                        .put("addresses", addressHitters.getSnapshot().toJSON())
+                        .put("tags", tagHitters.getSnapshot().toJSON())
+                        .put("estimated", true))
+                .put("probe_filter", probeFilter.toJSON())
+                .put("probes", probeTracker.toJSON())
+                .put("rest", IctRestCaller.getStats())
+                .put("sync", syncSchedule.toJSON())
+                .put("neighbors", jsonNeighbors);
+        final DuplicateFilter duplicateFilter = this.duplicateFilter;
+        if (duplicateFilter != null) {
+            statistics.put("regossip", duplicateFilter.toJSON().put("estimated", estimated));
+        }
+        final ShardedGossipProcessor gossipProcessor = this.gossipProcessor;
+        if (gossipProcessor != null) {
+            statistics.put("processing", gossipProcessor.getStats());
+        }
+        final Reporter reporter = this.reporter;
+        if (reporter != null) {
+            statistics.put("reporter", reporter.getStats());
+        }
+        final LoadGenerator loadGenerator = this.loadGenerator;
+        if (loadGenerator != null) {
+            statistics.put("load", loadGenerator.getStats());
+        }
+        final List<NodeSnapshot> fleet = includeFleet ? getFleetSnapshots() : new ArrayList<NodeSnapshot>();
+        if (!fleet.isEmpty()) {
+            final JSONArray jsonFleet = new JSONArray();
+            for (NodeSnapshot node : fleet) {
+                jsonFleet.put(node.toJSON());
+            }
+            statistics.put("fleet", jsonFleet);
+        }
+        return statistics;
+    }
+
+    /**
+     * Writes the same figures as {@link #getStatistics()} in the OpenMetrics format. Gossip and re-gossip counters
+     * are estimates while sampling, see {@code measure_ixi_gossip_sample_rate}. Reads the live counters and
+     * histograms instead of their snapshots, so a scrape does not allocate.
+     * */
+    @Override
+    public void writeMetrics(final OpenMetricsWriter writer) {
+        writer.family("measure_ixi_gossip_received", "counter", "Transactions received or submitted by Ict.")
+                .sample("measure_ixi_gossip_received_total", gossipCounters.getReceived());
+        writer.family("measure_ixi_gossip_own", "counter", "Transactions submitted by this Ict.")
+                .sample("measure_ixi_gossip_own_total", gossipCounters.getOwn());
+        writer.family("measure_ixi_gossip_untracked", "counter", "Transactions not counted by tag.")
+                .sample("measure_ixi_gossip_untracked_total", gossipCounters.getUntracked());
+        writer.family("measure_ixi_gossip_tag", "counter", "Transactions received or submitted per tag.");
+        for (int slot = 0; slot < gossipCounters.getTagCapacity(); slot++) {
+            final String tag = gossipCounters.getTag(slot);
+            if (tag != null) {
+                writer.sample("measure_ixi_gossip_tag_total", "tag", tag, gossipCounters.getTagCount(slot));
+            }
+        }
+
+        writer.family("measure_ixi_gossip_observed", "counter", "Transactions seen by the module, counted exactly whether sampled or not.")
+                .sample("measure_ixi_gossip_observed_total", gossipSampler.getObserved());
+        writer.family("measure_ixi_gossip_sample_rate", "gauge", "Fraction of transactions measured, the other gossip counters are up-scaled by its inverse.")
+                .sample("measure_ixi_gossip_sample_rate", gossipSampler.getRate());
+
+        writeMeter(writer, "measure_ixi_inbound_tps", "Received transactions per second.", inboundMeter);
+        writeMeter(writer, "measure_ixi_outbound_tps", "Transactions per second submitted by this Ict.", outboundMeter);
+
+        final HeavyHitters.Snapshot topAddresses = addressHitters.getSnapshot();
+        writer.family("measure_ixi_heavy_hitter_address", "gauge", "Estimated transactions of the most frequent addresses in the last window.");
+        for (int i = 0; i < topAddresses.getEntries().size(); i++) {
+            writer.sample("measure_ixi_heavy_hitter_address", "address", topAddresses.getEntries().get(i).getKey(), topAddresses.getEntries().get(i).getCount());
+        }
+        final HeavyHitters.Snapshot topTags = tagHitters.getSnapshot();
+        writer.family("measure_ixi_heavy_hitter_tag", "gauge", "Estimated transactions of the most frequent tags in the last window.");
+        for (int i = 0; i < topTags.getEntries().size(); i++) {
+            writer.sample("measure_ixi_heavy_hitter_tag", "tag", topTags.getEntries().get(i).getKey(), topTags.getEntries().get(i).getCount());
+        }
+
+        final ShardedGossipProcessor gossipProcessor = this.gossipProcessor;
+        if (gossipProcessor != null) {
+            writer.family("measure_ixi_gossip_queue_depth", "gauge", "Gossip events waiting to be processed per shard.");
+            for (int shard = 0; shard < gossipProcessor.getShardCount(); shard++) {
+                writer.sample("measure_ixi_gossip_queue_depth", "shard", SHARD_LABELS[shard], gossipProcessor.getDepth(shard));
+            }
+            writer.family("measure_ixi_gossip_processed", "counter", "Gossip events processed by the module.")
+                    .sample("measure_ixi_gossip_processed_total", gossipProcessor.getProcessed());
+            writer.family("measure_ixi_gossip_dropped", "counter", "Gossip events dropped because their shard was full.")
+                    .sample("measure_ixi_gossip_dropped_total", "reason", "oldest", gossipProcessor.getDroppedOldest())
+                    .sample("measure_ixi_gossip_dropped_total", "reason", "newest", gossipProcessor.getDroppedNewest())
+                    .sample("measure_ixi_gossip_dropped_total", "reason", "sampled", gossipProcessor.getSampledOut());
+            writer.family("measure_ixi_gossip_blocked", "counter", "Gossip events which had to wait for room in their shard.")
+                    .sample("measure_ixi_gossip_blocked_total", gossipProcessor.getBlocked());
+            writer.family("measure_ixi_gossip_lag_seconds", "summary", "Time gossip events spent queued before processing.")
+                    .summaryInSeconds("measure_ixi_gossip_lag_seconds", gossipProcessor.getLag(), TimeUnit.NANOSECONDS);
+        }
+
+        // duplicates sent by neighbors are ignored by Ict before gossip, see measure_ixi_neighbor_ignored_tps
+        final DuplicateFilter duplicateFilter = this.duplicateFilter;
+        if (duplicateFilter != null) {
+            writer.family("measure_ixi_regossip_checked", "counter", "Foreign transactions checked for re-gossip.")
+                    .sample("measure_ixi_regossip_checked_total", duplicateFilter.getChecked());
+            writer.family("measure_ixi_regossip", "counter", "Foreign transactions gossiped by Ict before, including false positives.")
+                    .sample("measure_ixi_regossip_total", duplicateFilter.getDuplicates());
+        }
+
+        writer.family("measure_ixi_probe_filter_hits", "counter", "Transactions passed on to the probe tracker by the tag filter.")
+                .sample("measure_ixi_probe_filter_hits_total", probeFilter.getHits());
+        writer.family("measure_ixi_probe_filter_misses", "counter", "Transactions rejected by the tag filter.")
+                .sample("measure_ixi_probe_filter_misses_total", probeFilter.getMisses());
+        writer.family("measure_ixi_probes_sent", "counter", "Probe transactions submitted.")
+                .sample("measure_ixi_probes_sent_total", probeTracker.getSent());
+        writer.family("measure_ixi_probes_matched", "counter", "Own probe transactions which came back.")
+                .sample("measure_ixi_probes_matched_total", probeTracker.getMatched());
+        writer.family("measure_ixi_probes_lost", "counter", "Own probe transactions which did not come back in time.")
+                .sample("measure_ixi_probes_lost_total", probeTracker.getLost());
+        writer.family("measure_ixi_probes_foreign", "counter", "Probe transactions of other nodes.")
+                .sample("measure_ixi_probes_foreign_total", probeTracker.getForeign());
+        writer.family("measure_ixi_probe_round_trip_seconds", "summary", "Round trip latency of own probes.")
+                .summaryInSeconds("measure_ixi_probe_round_trip_seconds", probeTracker.getRoundTripHistogram(), TimeUnit.NANOSECONDS);
+        writer.family("measure_ixi_probe_propagation_seconds", "summary", "Propagation latency of foreign probes.")
+                .summaryInSeconds("measure_ixi_probe_propagation_seconds", probeTracker.getPropagationHistogram(), TimeUnit.MILLISECONDS);
+
+        writer.family("measure_ixi_rest_failed", "counter", "Failed calls to the Ict REST API.")
+                .sample("measure_ixi_rest_failed_total", IctRestCaller.getFailedCalls());
+        writer.family("measure_ixi_rest_latency_seconds", "summary", "Latency of successful calls to the Ict REST API.")
+                .summaryInSeconds("measure_ixi_rest_latency_seconds", IctRestCaller.getLatencyHistogram(), TimeUnit.NANOSECONDS);
+
+        final List<Neighbor> neighbors = getNeighbors();
+        writer.family("measure_ixi_neighbor_all_tps", "gauge", "Transactions per second received from a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_all_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getAllTps());
+        }
+        writer.family("measure_ixi_neighbor_new_tps", "gauge", "New transactions per second received from a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_new_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getNewTps());
+        }
+        writer.family("measure_ixi_neighbor_ignored_tps", "gauge", "Ignored transactions per second received from a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_ignored_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getIgnoredTps());
+        }
+        writer.family("measure_ixi_neighbor_invalid_tps", "gauge", "Invalid transactions per second received from a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_invalid_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getInvalidTps());
+        }
+        writer.family("measure_ixi_neighbor_requested_tps", "gauge", "Transactions per second requested by a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_requested_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getRequestedTps());
+        }
+        writer.family("measure_ixi_neighbor_m1_tps", "gauge", "Transactions per second received from a neighbor over the rounds of the last minute.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_m1_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getOneMinuteRate());
+        }
+        writer.family("measure_ixi_neighbor_m15_tps", "gauge", "Transactions per second received from a neighbor over the rounds of the last fifteen minutes.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_m15_tps", "address", neighbors.get(i).getAddress(), neighbors.get(i).getFifteenMinuteRate());
+        }
+        writer.family("measure_ixi_neighbor_restarts", "counter", "Ict restarts detected in the stats of a neighbor.");
+        for (int i = 0; i < neighbors.size(); i++) {
+            writer.sample("measure_ixi_neighbor_restarts_total", "address", neighbors.get(i).getAddress(), neighbors.get(i).getRates().getRestarts());
+        }
+        writer.family("measure_ixi_neighbor_syncs", "counter", "Neighbor syncs with Ict by outcome, unchanged payloads are skipped.")
+                .sample("measure_ixi_neighbor_syncs_total", "outcome", "applied", syncSchedule.getApplied())
+                .sample("measure_ixi_neighbor_syncs_total", "outcome", "skipped", syncSchedule.getSkipped())
+                .sample("measure_ixi_neighbor_syncs_total", "outcome", "failed", syncSchedule.getFailed());
+        writer.family("measure_ixi_neighbors_synced_age_seconds", "gauge", "Time since the neighbors were last synced with Ict.")
+                .sample("measure_ixi_neighbors_synced_age_seconds", snapshot.getAge(System.currentTimeMillis()) / 1000.0);
+
+        final LoadGenerator loadGenerator = this.loadGenerator;
+        if (loadGenerator != null) {
+            writer.family("measure_ixi_load_submitted", "counter", "Transactions submitted by the load generator.")
+                    .sample("measure_ixi_load_submitted_total", loadGenerator.getSubmitted());
+            writer.family("measure_ixi_load_failed", "counter", "Transactions the load generator failed to submit.")
+                    .sample("measure_ixi_load_failed_total", loadGenerator.getFailed());
+        }
+
+        final List<NodeSnapshot> fleet = getFleetSnapshots();
+        if (!fleet.isEmpty()) {
+            writer.family("measure_ixi_node_up", "gauge", "Whether the last poll of a monitored Ict succeeded.");
+            for (int i = 0; i < fleet.size(); i++) {
+                writer.sample("measure_ixi_node_up", "node", fleet.get(i).getNode().getName(), fleet.get(i).isUp() ? 1 : 0);
+            }
+            writer.family("measure_ixi_node_poll_failures", "counter", "Failed polls of a monitored Ict.");
+            for (int i = 0; i < fleet.size(); i++) {
+                writer.sample("measure_ixi_node_poll_failures_total", "node", fleet.get(i).getNode().getName(), fleet.get(i).getFailures());
+            }
+            writer.family("measure_ixi_node_poll_latency_seconds", "gauge", "Duration of the last poll of a monitored Ict.");
+            for (int i = 0; i < fleet.size(); i++) {
+                writer.sample("measure_ixi_node_poll_latency_seconds", "node", fleet.get(i).getNode().getName(), fleet.get(i).getLatencyNanos() / 1e9);
+            }
+            writer.family("measure_ixi_node_neighbors", "gauge", "Neighbors of a monitored Ict.");
+            for (int i = 0; i < fleet.size(); i++) {
+                writer.sample("measure_ixi_node_neighbors", "node", fleet.get(i).getNode().getName(), fleet.get(i).getNeighbors().size());
+            }
         }
     }
 
+    private static void writeMeter(final OpenMetricsWriter writer, final String name, final String help, final Meter meter) {
+        writer.family(name, "gauge", help)
+                .sample(name, "window", "1m", meter.getWindowRate())
+                .sample(name, "window", "m1", meter.getOneMinuteRate())
+                .sample(name, "window", "m5", meter.getFiveMinuteRate())
+                .sample(name, "window", "m15", meter.getFifteenMinuteRate());
+    }
+
     private class IllegalPropertyException extends IllegalArgumentException {
         private IllegalPropertyException(String field, String cause) {
             super("Invalid property '" + field + "': " + cause + ".");
         }
     }
 
+    /**
+     * Fetches config, info and neighbors from the Ict REST API concurrently and applies whatever arrived
+     * within {@link Constants#SYNC_DEADLINE} milliseconds. A sync therefore takes as long as the slowest call.
+     * */
     public void syncIct() {
-        syncIctConfig();
-        syncIctInfo();
-        syncIctNeighbors();
+        syncIct(Constants.SYNC_DEADLINE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return {@code true} if all three calls completed within the deadline, otherwise only the completed ones were applied.
+     * */
+    public boolean syncIct(final long deadline, final TimeUnit unit) {
+        final Object event = Events.SINK.beginSync();
+        boolean complete = false;
+        try {
+            complete = fetchAndApply(deadline, unit);
+        } finally {
+            Events.SINK.endSync(event, neighbors.size(), complete);
+        }
+        return complete;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean fetchAndApply(final long deadline, final TimeUnit unit) {
+        final int port = getIctRestPort();
+        final String password = getIctRestPassword();
+
+        final List<Callable<Object>> calls = new ArrayList<>(3);
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return IctRestCaller.getConfig(port, password);
+            }
+        });
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return IctRestCaller.getInfo(port, password);
+            }
+        });
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return IctRestCaller.getNeighborStats(port, password, STATS_TAIL, neighborChanges);
+            }
+        });
+
+        final List<Future<Object>> results;
+        try {
+            results = syncExecutor.invokeAll(calls, deadline, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        // Apply in dependency order: the neighbor stats record to pick depends on the Ict version.
+        boolean complete = true;
+        for (int i = 0; i < results.size(); i++) {
+            final Future<Object> result = results.get(i);
+            if (result.isCancelled()) {
+                complete = false;
+                if (i == 2) {
+                    // the call may have fingerprinted a payload which is never applied now
+                    recordFailedNeighborSync();
+                }
+                log.warn("Ict REST API call /{} missed the sync deadline of {} {}", SYNC_ROUTES[i], deadline, unit);
+                continue;
+            }
+            final Object response;
+            try {
+                response = result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                complete = false;
+                if (i == 2) {
+                    recordFailedNeighborSync();
+                }
+                log.error("Ict REST API call /{} failed: {}", SYNC_ROUTES[i], e.getCause().toString());
+                continue;
+            }
+            switch (i) {
+                case 0:
+                    applyIctConfig((JSONObject) response);
+                    break;
+                case 1:
+                    applyIctInfo((JSONObject) response);
+                    break;
+                default:
+                    applyIctNeighbors((List<IctNeighborStats>) response);
+            }
+        }
+        return complete;
     }
 
     public void syncIctConfig() {
-        final JSONObject response = IctRestCaller.getConfig(getIctRestPort(), getIctRestPassword());
+        applyIctConfig(IctRestCaller.getConfig(getIctRestPort(), getIctRestPassword()));
+    }
 
+    private void applyIctConfig(final JSONObject response) {
         if (response != null) {
             setIctRoundDuration(response.getNumber("round_duration").intValue());
         }
     }
 
     public void syncIctInfo() {
-        final JSONObject response = IctRestCaller.getInfo(getIctRestPort(), getIctRestPassword());
+        applyIctInfo(IctRestCaller.getInfo(getIctRestPort(), getIctRestPassword()));
+    }
 
+    private void applyIctInfo(final JSONObject response) {
         if (response != null) {
             setIctVersion(response.getString("version"));
         }
     }
 
     public void syncIctNeighbors() {
-        final JSONArray response = IctRestCaller.getNeighbors(getIctRestPort(), getIctRestPassword());
+        final Object event = Events.SINK.beginSync();
+        final List<IctNeighborStats> response = IctRestCaller.getNeighborStats(getIctRestPort(), getIctRestPassword(), STATS_TAIL, neighborChanges);
+        try {
+            applyIctNeighbors(response);
+        } finally {
+            Events.SINK.endSync(event, neighbors.size(), response != null);
+        }
+    }
 
-        final List<Neighbor> keepNeighbors = new LinkedList<>();
+    /**
+     * Applies the neighbor stats of a sync. An {@link IctRestCaller#UNCHANGED unchanged} payload is skipped if it
+     * was applied before, unless the newest round of a neighbor ended since, then the records are selected again.
+     * A failed call, {@code null}, leaves the neighbors and the snapshot untouched.
+     * */
+    private void applyIctNeighbors(List<IctNeighborStats> response) {
+        final long now = System.currentTimeMillis();
+        if (response == IctRestCaller.UNCHANGED) {
+            if (!syncSchedule.isPayloadApplied() || lastNeighborStats == null) {
+                // the payload was fingerprinted by a sync which did not apply it, apply it next time
+                recordFailedNeighborSync();
+                return;
+            }
+            if (now < nextCompletion) {
+                syncSchedule.record(SyncSchedule.Outcome.UNCHANGED, -1);
+                snapshot = snapshot.withSyncedAt(now);
+                return;
+            }
+            response = lastNeighborStats;
+        }
+        if (response == null) {
+            // a failed call says nothing about the neighbors, keep them with their history until Ict answers again
+            recordFailedNeighborSync();
+            return;
+        }
+        // replaced at the end, neighbors added by a configuration change in the meantime are merged
+        final NeighborRegistry.Snapshot read = neighbors.snapshot();
+        final List<Neighbor> keepNeighbors = new ArrayList<>(response.size());
+        final long roundDuration = getIctRoundDuration();
+        long roundStart = -1;
+        long nextCompletion = Long.MAX_VALUE;
 
-        for (int i = 0; response != null && i < response.length(); i++) {
-            final JSONObject ictNeighbor = (JSONObject) response.get(i);
-            final String ictNeighborAddress = ictNeighbor.getString("address");
-            final JSONArray ictNeighborStatsArray = ictNeighbor.getJSONArray("stats");
+        for (int i = 0; i < response.size(); i++) {
+            final IctNeighborStats ictNeighbor = response.get(i);
+            final String ictNeighborAddress = ictNeighbor.getAddress();
 
-            Neighbor neighbor = getNeighborByStaticAddress(ictNeighborAddress);
+            Neighbor neighbor = read.get(ictNeighborAddress);
             if (neighbor == null) {
-                neighbor = new Neighbor(ictNeighborAddress);
+                neighbor = newNeighbor(ictNeighborAddress);
+            }
+
+            final int newest = ictNeighbor.fromEnd(0);
+            if (newest >= 0) {
+                final long timestamp = ictNeighbor.getTimestamp(newest);
+                roundStart = Math.max(roundStart, timestamp);
+                if (timestamp + roundDuration > now) {
+                    nextCompletion = Math.min(nextCompletion, timestamp + roundDuration);
+                }
             }
 
-            final JSONObject ictNeighborStats = getIctNeighborStats(ictNeighborStatsArray);
-            if (ictNeighborStats != null) {
-                neighbor.setTimestamp(ictNeighborStats.getNumber("timestamp").longValue());
-                neighbor.setAllTx(ictNeighborStats.getInt("all"));
-                neighbor.setNewTx(ictNeighborStats.getInt("new"));
-                neighbor.setIgnoredTx(ictNeighborStats.getInt("ignored"));
-                neighbor.setInvalidTx(ictNeighborStats.getInt("invalid"));
-                neighbor.setRequestedTx(ictNeighborStats.getInt("requested"));
+            final int record = neighbor.getRates().update(ictNeighbor, now, roundDuration);
+            if (record >= 0) {
+                final boolean appended = neighbor.updateStats(
+                        ictNeighbor.getTimestamp(record),
+                        neighbor.getRates().getDuration(),
+                        (int) ictNeighbor.getAll(record),
+                        (int) ictNeighbor.getNew(record),
+                        (int) ictNeighbor.getIgnored(record),
+                        (int) ictNeighbor.getInvalid(record),
+                        (int) ictNeighbor.getRequested(record));
+                final MeasurementStore store = this.store;
+                if (appended && store != null) {
+                    store.appendNeighborStats(neighbor.getAddress(), ictNeighbor.getTimestamp(record),
+                            ictNeighbor.getAll(record), ictNeighbor.getNew(record), ictNeighbor.getIgnored(record),
+                            ictNeighbor.getInvalid(record), ictNeighbor.getRequested(record));
+                }
             }
 
             if (!neighbor.getPublicAddress().isEmpty()) {
                 // The user has intentionally specified a publicAddress for this neighbor
-                neighbor.setUuid(UuidGenerator.generate(neighbor.getPublicAddress()));
-                log.debug(String.format(
-                        "Assigned uuid %s to neighbor %s based upon the publicAddress specified by the user",
-                        neighbor.getUuid(),
-                        neighbor)
-                );
+                if (neighbor.assignUuid(neighbor.getPublicAddress()) && log.isDebugEnabled()) {
+                    log.debug("Assigned uuid {} to neighbor {} based upon the publicAddress specified by the user",
+                            neighbor.getUuid(), neighbor);
+                }
             } else {
                 // No public address was specified for this neighbor, assume that address is the publicAddress
-                neighbor.setUuid(UuidGenerator.generate(neighbor.getAddress()));
-                log.debug(String.format(
-                        "Assigned uuid %s to neighbor %s based upon the address received from Ict REST API",
-                        neighbor.getUuid(),
-                        neighbor)
-                );
+                if (neighbor.assignUuid(neighbor.getAddress()) && log.isDebugEnabled()) {
+                    log.debug("Assigned uuid {} to neighbor {} based upon the address received from Ict REST API",
+                            neighbor.getUuid(), neighbor);
+                }
             }
 
             keepNeighbors.add(neighbor);
         }
 
         // Update the neighbor list. Neighbors that are not represented in Ict are discarded.
-        synchronized (this.neighbors) {
-            neighbors.clear();
-            neighbors.addAll(keepNeighbors);
-        }
+        neighbors.replaceAll(read, keepNeighbors);
+        publishSnapshot(true);
+        lastNeighborStats = response;
+        this.nextCompletion = nextCompletion;
+        syncSchedule.record(SyncSchedule.Outcome.APPLIED, roundStart);
+        report();
     }
 
-    private Neighbor getNeighborByStaticAddress(String staticAddress) {
-        for (Neighbor neighbor : getNeighbors()) {
-            if (neighbor.getAddress().equals(staticAddress)) {
-                return neighbor;
-            }
-        }
-        return null;
+    /**
+     * Records a neighbor sync which applied nothing. Its payload may have been fingerprinted already, so the next
+     * one is applied rather than skipped as unchanged.
+     * */
+    private void recordFailedNeighborSync() {
+        neighborChanges.forget();
+        syncSchedule.record(SyncSchedule.Outcome.FAILED, -1);
     }
 
-    private JSONObject getIctNeighborStats(JSONArray ictNeighborStatsArray) {
-        if (getIctVersion().equals("0.5")) {
-            // If this version of Report.ixi is operated on Ict 0.5, it will always try to get
-            // the last metrics/stats record from Ict api.
-            if (ictNeighborStatsArray.length() > 0) {
-                return ictNeighborStatsArray.getJSONObject(ictNeighborStatsArray.length() - 1);
-            }
-        } else {
-            // If this version of Report.ixi is on any newer version than Ict 0.5, it will always
-            // try to get the second to last metrics/stats record from Ict api.
-            if (ictNeighborStatsArray.length() > 1) {
-                return ictNeighborStatsArray.getJSONObject(ictNeighborStatsArray.length() - 2);
-            }
+    private void report() {
+        final Reporter reporter = this.reporter;
+        // reports are only sent once the user replaced the placeholder public address the uuid is derived from
+        if (reporter == null || getUuid() == null || DEFAULT_PUBLIC_ADDRESS.equals(getPublicAddress())) {
+            return;
         }
-        return null;
+        // the monitored nodes are private to this operator and stay out of reports
+        reporter.offer(getStatistics(false)
+                .put("uuid", getUuid())
+                .put("name", getName())
+                .put("ict_version", getIctVersion())
+                .put("timestamp", System.currentTimeMillis()));
+    }
+
+    /**
+     * @return a neighbor to register for this address, with the history replayed from the store if there is one
+     * */
+    private Neighbor newNeighbor(final String address) {
+        final Neighbor replayed = replayedNeighbors.remove(address);
+        return replayed != null ? replayed : new Neighbor(address);
+    }
+
+    private Neighbor getNeighborByStaticAddress(String staticAddress) {
+        return neighbors.get(staticAddress);
     }
 }